@@ -6,7 +6,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -16,26 +21,48 @@ public class BookingClient extends BaseClient {
         super(serverUrl + "/bookings", builder);
     }
 
-    public ResponseEntity<Object> create(long userId, Object body) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, Object body) {
         return post("", userId, body);
     }
 
-    public ResponseEntity<Object> approve(long userId, long bookingId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> approve(long userId, long bookingId, boolean approved) {
         Map<String, Object> params = Map.of("id", bookingId, "approved", approved);
         return patch("/{id}?approved={approved}", userId, (Object) null, params);
     }
 
-    public ResponseEntity<Object> getById(long userId, long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> approveAll(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId, long bookingId) {
         return get("/{id}", userId, Map.of("id", bookingId));
     }
 
-    public ResponseEntity<Object> getMy(long userId, String state, int from, int size) {
-        Map<String, Object> p = Map.of("state", state, "from", from, "size", size);
-        return get("?state={state}&from={from}&size={size}", userId, p);
+    public CompletableFuture<ResponseEntity<Object>> getMy(long userId, String state, int from, int size, String after,
+                                        LocalDateTime start, LocalDateTime end) {
+        return list("", userId, state, from, size, after, start, end);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwner(long userId, String state, int from, int size, String after,
+                                           LocalDateTime start, LocalDateTime end) {
+        return list("/owner", userId, state, from, size, after, start, end);
     }
 
-    public ResponseEntity<Object> getOwner(long userId, String state, int from, int size) {
-        Map<String, Object> p = Map.of("state", state, "from", from, "size", size);
-        return get("/owner?state={state}&from={from}&size={size}", userId, p);
+    // курсор (after) непрозрачен для gateway — передаём как есть; необязательные параметры — только если заданы
+    private CompletableFuture<ResponseEntity<Object>> list(String prefix, long userId, String state, int from, int size, String after,
+                                        LocalDateTime start, LocalDateTime end) {
+        StringBuilder path = new StringBuilder(prefix).append("?state={state}&from={from}&size={size}");
+        Map<String, Object> params = new HashMap<>(Map.of("state", state, "from", from, "size", size));
+        Map<String, Object> optional = new LinkedHashMap<>();
+        optional.put("after", after);
+        optional.put("start", start);
+        optional.put("end", end);
+        optional.forEach((name, value) -> {
+            if (value != null) {
+                path.append('&').append(name).append("={").append(name).append('}');
+                params.put(name, value);
+            }
+        });
+        return get(path.toString(), userId, params);
     }
 }
@@ -1,17 +1,24 @@
 package ru.practicum.shareit.gateway.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import ru.practicum.shareit.gateway.client.BaseClient;
 import ru.practicum.shareit.gateway.validation.BookingDatesValidator;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/bookings")
@@ -23,9 +30,10 @@ public class BookingController {
             Set.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
 
     private final BookingClient client;
+    private final BookingEventsRelay eventsRelay;
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public CompletableFuture<ResponseEntity<Object>> create(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @Valid @RequestBody BookingInputDto dto
     ) {
@@ -34,7 +42,7 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(
+    public CompletableFuture<ResponseEntity<Object>> approve(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @PathVariable @Positive long bookingId,
             @RequestParam boolean approved
@@ -43,34 +51,58 @@ public class BookingController {
         return client.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> approveAll(
+            @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
+            @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions
+    ) {
+        return client.approveAll(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(
+    public CompletableFuture<ResponseEntity<Object>> getById(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @PathVariable @Positive long bookingId
     ) {
         return client.getById(userId, bookingId);
     }
 
+    @GetMapping("/{bookingId}/events")
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> events(
+            @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
+            @PathVariable @Positive long bookingId
+    ) {
+        return eventsRelay.relay(userId, bookingId);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getMy(
+    public CompletableFuture<ResponseEntity<Object>> getMy(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
     ) {
         validateState(state);
-        return client.getMy(userId, state, from, size);
+        validateRange(start, end);
+        return client.getMy(userId, state, from, size, after, start, end);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwner(
+    public CompletableFuture<ResponseEntity<Object>> getOwner(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
     ) {
         validateState(state);
-        return client.getOwner(userId, state, from, size);
+        validateRange(start, end);
+        return client.getOwner(userId, state, from, size, after, start, end);
     }
 
     private void validateState(String state) {
@@ -78,4 +110,10 @@ public class BookingController {
             throw new IllegalArgumentException("Unknown state: " + state);
         }
     }
+
+    private void validateRange(LocalDateTime start, LocalDateTime end) {
+        if (start != null && end != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException("start must be before end");
+        }
+    }
 }
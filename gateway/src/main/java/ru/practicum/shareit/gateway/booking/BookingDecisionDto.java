@@ -0,0 +1,19 @@
+package ru.practicum.shareit.gateway.booking;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+    @NotNull(message = "bookingId не должен быть пустым")
+    @Positive
+    private Long bookingId;
+
+    @NotNull(message = "approved не должен быть пустым")
+    private Boolean approved;
+}
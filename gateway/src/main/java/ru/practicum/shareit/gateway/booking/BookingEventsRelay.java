@@ -0,0 +1,99 @@
+package ru.practicum.shareit.gateway.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.gateway.client.BaseClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+// прокси SSE-потока GET /bookings/{id}/events. RestTemplate читает ответ целиком и держит поток,
+// поэтому поток событий идёт через неблокирующий java.net.http.HttpClient: строки от сервера
+// пересылаются клиенту по мере прихода, а ожидание решения не занимает ни одного потока gateway
+@Component
+public class BookingEventsRelay {
+    private final HttpClient httpClient;
+    private final String serverUrl;
+    private final Duration timeout;
+
+    public BookingEventsRelay(@Value("${shareit-server.url}") String serverUrl,
+                              @Value("${shareit-gateway.events.timeout:6m}") Duration timeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.serverUrl = serverUrl;
+        this.timeout = timeout;
+    }
+
+    // статус и Content-Type — как у сервера: ошибки (404 и т.п.) приходят обычным JSON
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> relay(long userId, long bookingId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(serverUrl + "/bookings/" + bookingId + "/events"))
+                .header(BaseClient.USER_HEADER, String.valueOf(userId))
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET()
+                .build();
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        CompletableFuture<ResponseEntity<ResponseBodyEmitter>> head = new CompletableFuture<>();
+        httpClient.sendAsync(request, info -> {
+            MediaType contentType = info.headers().firstValue("Content-Type")
+                    .map(MediaType::parseMediaType)
+                    .orElse(MediaType.APPLICATION_JSON);
+            head.complete(ResponseEntity.status(info.statusCode())
+                    .contentType(contentType)
+                    .body(emitter));
+            return HttpResponse.BodySubscribers.fromLineSubscriber(new LineRelay(emitter));
+        }).whenComplete((response, error) -> {
+            if (error != null) head.completeExceptionally(error);
+        });
+        return head;
+    }
+
+    private static final class LineRelay implements Flow.Subscriber<String> {
+        private final ResponseBodyEmitter emitter;
+        private Flow.Subscription subscription;
+
+        private LineRelay(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            // клиент ушёл или истёк таймаут — закрываем и соединение с сервером
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(emitter::complete);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                emitter.send(line + "\n", MediaType.TEXT_PLAIN);
+            } catch (IOException | IllegalStateException e) {
+                subscription.cancel();
+                emitter.completeWithError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            emitter.completeWithError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            emitter.complete();
+        }
+    }
+}
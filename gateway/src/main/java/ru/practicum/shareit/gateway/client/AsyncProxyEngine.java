@@ -0,0 +1,139 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+// неблокирующий режим прокси (shareit-gateway.proxy.mode=async): запросы к серверу уходят через
+// асинхронный Apache HttpClient 5, поток Tomcat освобождается сразу после отправки, а ответ
+// дописывается из I/O reactor'а. Медленный сервер копит открытые запросы, но не съедает пул потоков
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.proxy.mode", havingValue = "async")
+public class AsyncProxyEngine implements DisposableBean, MeterBinder {
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    private final CloseableHttpAsyncClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    // пул и таймауты — из тех же shareit-gateway.proxy.pool.*, что у RestTemplate (ServerPoolSettings)
+    public AsyncProxyEngine(ObjectMapper objectMapper, ServerPoolSettings settings) {
+        this.objectMapper = objectMapper;
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(settings.maxTotal())
+                .setMaxConnPerRoute(settings.maxPerRoute())
+                .setDefaultConnectionConfig(settings.connectionConfig())
+                .build();
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(settings.requestConfig())
+                .setKeepAliveStrategy(settings.keepAliveStrategy())
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.evictIdleAfter())
+                .build();
+        this.httpClient.start();
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              Object body, boolean passThrough) {
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name()).setUri(uri);
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                values.forEach(value -> builder.addHeader(name, value));
+            }
+        });
+        if (body != null) {
+            builder.setBody(toJson(body), ContentType.APPLICATION_JSON);
+        }
+        SimpleHttpRequest request = builder.build();
+
+        CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    result.complete(toEntity(response, passThrough));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    // те же gauge'и httpcomponents.httpclient.pool.*, что у блокирующего пула, с httpclient=shareit-server-async
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server-async").bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // тело — как у RestTemplate: в pass-through байты как есть, иначе как с Object.class —
+    // JSON разбирается в Map/List, остальное отдаётся строкой
+    private ResponseEntity<Object> toEntity(SimpleHttpResponse response, boolean passThrough) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        byte[] bytes = response.getBodyBytes();
+        Object body = null;
+        if (bytes != null && bytes.length > 0 && passThrough) {
+            body = bytes;
+        } else if (bytes != null && bytes.length > 0) {
+            ContentType type = response.getContentType();
+            try {
+                body = type != null && type.getMimeType().contains("json")
+                        ? objectMapper.readValue(bytes, Object.class)
+                        : response.getBodyText();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new ResponseEntity<>(body, headers, response.getCode());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.gateway.client;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.http.client.ClientHttpResponse;
@@ -7,8 +9,10 @@ import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.net.URI;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class BaseClient {
     public static final String USER_HEADER = "X-Sharer-User-Id";
@@ -27,9 +31,16 @@ public class BaseClient {
     );
 
     private final RestTemplate rest;
+    private final DefaultUriBuilderFactory uriFactory;
+    private final String serverUrl;
+    private AsyncProxyEngine asyncEngine;
+    private ResponseCache responseCache;
+    private boolean passThrough;
 
     public BaseClient(String serverUrl, RestTemplateBuilder builder) {
         DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory(serverUrl);
+        this.uriFactory = factory;
+        this.serverUrl = serverUrl;
 
         this.rest = builder
                 .uriTemplateHandler(factory)
@@ -42,74 +53,132 @@ public class BaseClient {
                 .build();
     }
 
+    // движок есть только при shareit-gateway.proxy.mode=async; без него запросы идут через RestTemplate,
+    // а future возвращается уже завершённым
+    @Autowired(required = false)
+    void setAsyncEngine(AsyncProxyEngine asyncEngine) {
+        this.asyncEngine = asyncEngine;
+    }
+
+    // pass-through: тело ответа сервера отдаётся клиенту теми же байтами (byte[] пишет
+    // ByteArrayHttpMessageConverter с Content-Type сервера), без разбора JSON в Map/List и обратной
+    // сериализации. Без него тело разбирается в дерево объектов, как раньше
+    @Value("${shareit-gateway.proxy.pass-through:false}")
+    void setPassThrough(boolean passThrough) {
+        this.passThrough = passThrough;
+    }
+
+    // без кэша (в тестах клиентов) все GET идут на сервер
+    @Autowired(required = false)
+    void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
     // ---------- GET ----------
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId, Map<String, Object> params) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId, Map<String, Object> params) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, params, null);
     }
 
+    // GET через кэш ответов: endpoint — имя TTL в shareit-gateway.cache.ttl.<endpoint>
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId, Map<String, Object> params,
+                                                            String endpoint) {
+        if (responseCache == null) {
+            return get(path, userId, params);
+        }
+        String uri = expand(path, params).toString();
+        return responseCache.get(endpoint, serverUrl, uri, userId,
+                etag -> exchange(HttpMethod.GET, path, userId, params, null, etag));
+    }
+
     // ---------- POST ----------
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body, Map<String, Object> params) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body, Map<String, Object> params) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, params, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, Map<String, Object> params, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, Map<String, Object> params, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, params, body);
     }
 
     // ---------- PATCH ----------
-    public <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    public <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body, Map<String, Object> params) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body, Map<String, Object> params) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, params, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, Map<String, Object> params, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, Map<String, Object> params, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, params, body);
     }
 
     // ---------- DELETE ----------
-    public ResponseEntity<Object> delete(String path, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId, Map<String, Object> params) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId, Map<String, Object> params) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, params, null);
     }
 
     // ---------- core ----------
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
-                                                          String path,
-                                                          long userId,
-                                                          Map<String, Object> params,
-                                                          T body) {
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method,
+                                                                             String path,
+                                                                             long userId,
+                                                                             Map<String, Object> params,
+                                                                             T body) {
+        CompletableFuture<ResponseEntity<Object>> response = exchange(method, path, userId, params, body, null);
+        if (responseCache == null || method == HttpMethod.GET) {
+            return response;
+        }
+        return response.whenComplete((result, error) -> responseCache.invalidate(serverUrl, expand(path, params)));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method,
+                                                                   String path,
+                                                                   long userId,
+                                                                   Map<String, Object> params,
+                                                                   T body,
+                                                                   String ifNoneMatch) {
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set(USER_HEADER, String.valueOf(userId)); // включая 0
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        if (asyncEngine != null) {
+            URI uri = expand(path, params);
+            return asyncEngine.exchange(method, uri, headers, body, passThrough).thenApply(this::sanitizeResponse);
+        }
 
         HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        Class<?> responseType = passThrough ? byte[].class : Object.class;
 
-        ResponseEntity<Object> resp;
+        ResponseEntity<?> resp;
         if (params != null && !params.isEmpty()) {
-            resp = rest.exchange(path, method, requestEntity, Object.class, params);
+            resp = rest.exchange(path, method, requestEntity, responseType, params);
         } else {
-            resp = rest.exchange(path, method, requestEntity, Object.class);
+            resp = rest.exchange(path, method, requestEntity, responseType);
         }
 
-        return sanitizeResponse(resp);
+        return CompletableFuture.completedFuture(sanitizeResponse(resp));
+    }
+
+    private URI expand(String path, Map<String, Object> params) {
+        return params != null && !params.isEmpty() ? uriFactory.expand(path, params) : uriFactory.expand(path);
     }
 
-    private ResponseEntity<Object> sanitizeResponse(ResponseEntity<Object> resp) {
+    private ResponseEntity<Object> sanitizeResponse(ResponseEntity<?> resp) {
         HttpHeaders safe = new HttpHeaders();
 
         resp.getHeaders().forEach((name, values) -> {
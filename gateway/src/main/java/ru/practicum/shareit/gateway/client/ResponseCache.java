@@ -0,0 +1,119 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// кэш ответов на повторяющиеся GET (мобильные клиенты перезапрашивают карточки при каждой перерисовке).
+// Ключ — клиент (базовый URL), URI с параметрами и X-Sharer-User-Id. Свежий ответ (младше TTL эндпоинта,
+// shareit-gateway.cache.ttl.<имя>) отдаётся без запроса к серверу; устаревший с ETag перепроверяется
+// через If-None-Match, и на 304 отдаётся сохранённое тело
+@Component
+public class ResponseCache implements MeterBinder {
+    private final Environment environment;
+    private final Cache<Key, Entry> entries;
+    private final Map<String, Duration> ttls = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(Environment environment,
+                         @Value("${shareit-gateway.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-gateway.cache.retain:5m}") Duration retain) {
+        this.environment = environment;
+        // устаревшие записи держатся дольше TTL — ради перепроверки по ETag
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(retain)
+                .recordStats()
+                .build();
+    }
+
+    // fetch получает ETag для If-None-Match (или null) и выполняет запрос к серверу
+    public CompletableFuture<ResponseEntity<Object>> get(String endpoint, String namespace, String uri, long userId,
+                                                         Function<String, CompletableFuture<ResponseEntity<Object>>> fetch) {
+        Duration ttl = ttl(endpoint);
+        if (ttl.isZero()) {
+            return fetch.apply(null);
+        }
+        Key key = new Key(namespace, uri, userId);
+        Entry cached = entries.getIfPresent(key);
+        if (cached != null && System.nanoTime() < cached.freshUntil()) {
+            return CompletableFuture.completedFuture(cached.response());
+        }
+
+        long generation = generation(namespace).get();
+        return fetch.apply(cached != null ? cached.etag() : null).thenApply(response -> {
+            if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                store(key, generation, new Entry(cached.response(), cached.etag(), System.nanoTime() + ttl.toNanos()));
+                return cached.response();
+            }
+            if (response.getStatusCode().value() == HttpStatus.OK.value()) {
+                String etag = response.getHeaders().getETag();
+                store(key, generation, new Entry(response, etag, System.nanoTime() + ttl.toNanos()));
+            }
+            return response;
+        });
+    }
+
+    // POST/PATCH/DELETE сбрасывают только GET, которые запись могла затронуть: сам ресурс и ресурсы
+    // выше по пути (POST /items/1/comment меняет карточку /items/1) — для всех пользователей, — а также
+    // списки с параметрами (поиск, /requests/all): в них может появиться или пропасть любая строка.
+    // Счётчик поколения не даёт GET, начатому до записи, положить в кэш старый ответ
+    public void invalidate(String namespace, URI written) {
+        generation(namespace).incrementAndGet();
+        String path = written.getPath();
+        entries.asMap().keySet().removeIf(key -> key.namespace().equals(namespace) && affected(key.uri(), path));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "gateway.responses");
+    }
+
+    // запись сперва кладётся, потом сверяется поколение: invalidate между проверкой и put не теряется
+    private void store(Key key, long generation, Entry entry) {
+        entries.put(key, entry);
+        if (generation(key.namespace()).get() != generation) {
+            entries.invalidate(key);
+        }
+    }
+
+    private Duration ttl(String endpoint) {
+        return ttls.computeIfAbsent(endpoint, name -> {
+            String value = environment.getProperty("shareit-gateway.cache.ttl." + name);
+            return value == null || value.isBlank() ? Duration.ZERO : DurationStyle.detectAndParse(value);
+        });
+    }
+
+    private static boolean affected(String cachedUri, String writtenPath) {
+        URI cached = URI.create(cachedUri);
+        if (cached.getRawQuery() != null) return true;
+        String path = cached.getPath();
+        return writtenPath.equals(path) || writtenPath.startsWith(path.endsWith("/") ? path : path + "/");
+    }
+
+    private AtomicLong generation(String namespace) {
+        return generations.computeIfAbsent(namespace, name -> new AtomicLong());
+    }
+
+    private record Key(String namespace, String uri, long userId) {
+    }
+
+    private record Entry(ResponseEntity<Object> response, String etag, long freshUntil) {
+    }
+}
@@ -1,36 +1,143 @@
 package ru.practicum.shareit.gateway.client;
 
-import org.apache.hc.client5.http.classic.HttpClient;
-import org.apache.hc.client5.http.config.RequestConfig;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.util.Timeout;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
 import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Configuration
 public class RestClientConfig {
 
+    // лимиты, таймауты и keep-alive — в ServerPoolSettings, общие с AsyncProxyEngine
     @Bean
-    public RestTemplateBuilder restTemplateBuilder() {
-        RequestConfig requestConfig = RequestConfig.custom()
-                .setConnectTimeout(Timeout.ofSeconds(5))
-                .setConnectionRequestTimeout(Timeout.ofSeconds(5))
-                .setResponseTimeout(Timeout.ofSeconds(10))
+    public PoolingHttpClientConnectionManager serverConnectionManager(ServerPoolSettings settings) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(settings.maxTotal())
+                .setMaxConnPerRoute(settings.maxPerRoute())
+                .setDefaultConnectionConfig(settings.connectionConfig())
                 .build();
+    }
 
-        HttpClient httpClient = HttpClients.custom()
-                .setDefaultRequestConfig(requestConfig)
+    // gauge'и httpcomponents.httpclient.pool.* (leased/available, pending, max) в /actuator/metrics
+    @Bean
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, "shareit-server");
+    }
+
+    @Bean
+    public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                ServerPoolSettings settings) {
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(settings.requestConfig())
+                .setKeepAliveStrategy(settings.keepAliveStrategy())
+                // фоновый поток закрывает просроченные по TTL/keep-alive и долго простаивающие соединения
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.evictIdleAfter())
                 .build();
+    }
 
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(
+            CloseableHttpClient serverHttpClient,
+            PoolingHttpClientConnectionManager serverConnectionManager,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         HttpComponentsClientHttpRequestFactory rf =
-                new HttpComponentsClientHttpRequestFactory(httpClient);
+                new HttpComponentsClientHttpRequestFactory(serverHttpClient);
 
-        return new RestTemplateBuilder()
+        RestTemplateBuilder builder = new RestTemplateBuilder()
                 .requestFactory(() -> rf)
-                .setConnectTimeout(Duration.ofSeconds(5));
+                .setConnectTimeout(Duration.ofMillis(ServerPoolSettings.CONNECT_TIMEOUT.toMilliseconds()));
+        if (!virtualThreads) return builder;
+        int permits = Math.min(serverConnectionManager.getMaxTotal(), serverConnectionManager.getDefaultMaxPerRoute());
+        return builder.additionalInterceptors(leaseGate(permits));
+    }
+
+    // сам пул (StrictConnPool) построен на ReentrantLock, но ожидание аренды в
+    // PoolingHttpClientConnectionManager идёт внутри synchronized — на JDK 21 виртуальный поток,
+    // ждущий свободное соединение, занимает carrier. Поэтому в режиме виртуальных потоков
+    // очередь за соединением держит семафор с тем же лимитом: в пул поток входит, только когда
+    // соединение для него уже есть, а паркуется на семафоре без захвата carrier'а
+    private static ClientHttpRequestInterceptor leaseGate(int maxConnections) {
+        Semaphore permits = new Semaphore(maxConnections, true);
+        return (request, body, execution) -> {
+            try {
+                if (!permits.tryAcquire(ServerPoolSettings.LEASE_TIMEOUT.toMilliseconds(), TimeUnit.MILLISECONDS)) {
+                    throw new SocketTimeoutException("Timeout waiting for connection to " + request.getURI().getHost());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for connection");
+            }
+            try {
+                return new GatedResponse(execution.execute(request, body), permits);
+            } catch (IOException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        };
+    }
+
+    // соединение возвращается в пул при закрытии ответа, тогда же отпускается и разрешение
+    private static final class GatedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private GatedResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) permits.release();
+            }
+        }
     }
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.gateway.client;
+
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// настройки пула соединений к shareit-server (shareit-gateway.proxy.pool.*) для обоих режимов прокси:
+// блокирующий HttpClient из RestClientConfig и асинхронный из AsyncProxyEngine строятся отсюда,
+// поэтому лимиты, таймауты и keep-alive у них не расходятся
+@Component
+public class ServerPoolSettings {
+    static final Timeout CONNECT_TIMEOUT = Timeout.ofSeconds(5);
+    static final Timeout LEASE_TIMEOUT = Timeout.ofSeconds(5);
+    static final Timeout RESPONSE_TIMEOUT = Timeout.ofSeconds(10);
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final Duration timeToLive;
+    private final Duration validateAfterInactivity;
+    private final Duration keepAlive;
+    private final Duration evictIdleAfter;
+
+    // у HttpClient по умолчанию 5 соединений на маршрут и 25 всего, а маршрут один (shareit-server):
+    // шестой параллельный запрос ждал соединение в connectionRequestTimeout. Поэтому лимит на маршрут
+    // по умолчанию равен общему
+    public ServerPoolSettings(
+            @Value("${shareit-gateway.proxy.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.proxy.pool.max-per-route:${shareit-gateway.proxy.pool.max-total:200}}") int maxPerRoute,
+            @Value("${shareit-gateway.proxy.pool.time-to-live:5m}") Duration timeToLive,
+            @Value("${shareit-gateway.proxy.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            @Value("${shareit-gateway.proxy.pool.keep-alive:15s}") Duration keepAlive,
+            @Value("${shareit-gateway.proxy.pool.evict-idle-after:30s}") Duration evictIdleAfter) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.timeToLive = timeToLive;
+        this.validateAfterInactivity = validateAfterInactivity;
+        this.keepAlive = keepAlive;
+        this.evictIdleAfter = evictIdleAfter;
+    }
+
+    public int maxTotal() {
+        return maxTotal;
+    }
+
+    public int maxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(CONNECT_TIMEOUT)
+                // соединение не живёт дольше TTL: после перезапуска/переезда сервера за балансировщиком
+                // пул постепенно переоткрывается на новые адреса
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+                // простоявшее соединение перед выдачей проверяется на закрытость сервером
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()))
+                .build();
+    }
+
+    public RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(LEASE_TIMEOUT)
+                .setResponseTimeout(RESPONSE_TIMEOUT)
+                .build();
+    }
+
+    // Tomcat не присылает Keep-Alive: timeout=..., а по умолчанию HttpClient держит такое
+    // соединение 3 минуты — дольше, чем Tomcat ждёт следующий запрос. Берём меньшее из
+    // объявленного сервером и своего лимита, чтобы не отправлять запрос в уже закрытый сокет
+    public ConnectionKeepAliveStrategy keepAliveStrategy() {
+        TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAlive.toMillis());
+        return (response, context) -> {
+            TimeValue offered = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return TimeValue.isPositive(offered) && offered.compareTo(maxKeepAlive) < 0 ? offered : maxKeepAlive;
+        };
+    }
+
+    public TimeValue evictIdleAfter() {
+        return TimeValue.ofMilliseconds(evictIdleAfter.toMillis());
+    }
+}
@@ -6,7 +6,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -16,29 +20,49 @@ public class ItemClient extends BaseClient {
         super(serverUrl + "/items", builder);
     }
 
-    public ResponseEntity<Object> create(long userId, Object body) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, Object body) {
         return post("", userId, body);
     }
 
+    public CompletableFuture<ResponseEntity<Object>> createAll(long userId, List<ItemDto> items) {
+        return post("/batch", userId, items);
+    }
+
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
-        return get("/{id}", userId, Map.of("id", itemId));
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId, long itemId) {
+        return get("/{id}", userId, Map.of("id", itemId), "item");
     }
 
-    public ResponseEntity<Object> getOwnerItems(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getOwnerItems(long userId, int from, int size) {
         return get("?from={from}&size={size}", userId, Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> search(long userId, String text) {
-        return get("/search?text={text}", userId, Map.of("text", text));
+    public CompletableFuture<ResponseEntity<Object>> search(long userId, String text, int from, int size, boolean ranked) {
+        return get("/search?text={text}&from={from}&size={size}&ranked={ranked}", userId,
+                Map.of("text", text, "from", from, "size", size, "ranked", ranked), "item-search");
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, Object body) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, long itemId, Object body) {
         return patch("/{id}", userId, body, Map.of("id", itemId));
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, Object body) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(long userId, long itemId, Object body) {
         return post("/{id}/comment", userId, body, Map.of("id", itemId));
     }
 
+    // границы периода необязательны — умолчания выставляет server
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        StringBuilder path = new StringBuilder("/{id}/availability");
+        Map<String, Object> params = new HashMap<>(Map.of("id", itemId));
+        if (from != null) {
+            path.append("?from={from}");
+            params.put("from", from);
+        }
+        if (to != null) {
+            path.append(from == null ? "?" : "&").append("to={to}");
+            params.put("to", to);
+        }
+        return get(path.toString(), userId, params);
+    }
+
 }
@@ -4,21 +4,28 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
 
+    private static final int MAX_BATCH_ITEMS = 1000;
+
     private final ItemClient client;
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public CompletableFuture<ResponseEntity<Object>> create(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @RequestBody ItemDto dto
     ) {
@@ -26,8 +33,21 @@ public class ItemController {
         return client.create(userId, dto);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> createAll(
+            @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
+            @RequestBody List<ItemDto> items
+    ) {
+        if (items == null || items.isEmpty()) throw new IllegalArgumentException("items must not be empty");
+        if (items.size() > MAX_BATCH_ITEMS) {
+            throw new IllegalArgumentException("no more than " + MAX_BATCH_ITEMS + " items per request");
+        }
+        items.forEach(this::validateItemCreate);
+        return client.createAll(userId, items);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(
+    public CompletableFuture<ResponseEntity<Object>> update(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @PathVariable @Positive long itemId,
             @RequestBody ItemDto dto
@@ -37,7 +57,7 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(
+    public CompletableFuture<ResponseEntity<Object>> getById(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @PathVariable @Positive long itemId
     ) {
@@ -45,7 +65,7 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnerItems(
+    public CompletableFuture<ResponseEntity<Object>> getOwnerItems(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
             @RequestParam(defaultValue = "10") @Positive int size
@@ -54,16 +74,19 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(
+    public CompletableFuture<ResponseEntity<Object>> search(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
-            @RequestParam String text
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(defaultValue = "false") boolean ranked
     ) {
         // если text пустой — server обычно возвращает []
-        return client.search(userId, text);
+        return client.search(userId, text, from, size, ranked);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(
+    public CompletableFuture<ResponseEntity<Object>> createComment(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @PathVariable @Positive long itemId,
             @Valid @RequestBody CommentCreateDto dto
@@ -71,6 +94,19 @@ public class ItemController {
         return client.createComment(userId, itemId, dto);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(
+            @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
+            @PathVariable @Positive long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return client.getAvailability(userId, itemId, from, to);
+    }
+
     private void validateItemCreate(ItemDto dto) {
         if (dto == null) throw new IllegalArgumentException("body is null");
         if (dto.getName() == null || dto.getName().isBlank())
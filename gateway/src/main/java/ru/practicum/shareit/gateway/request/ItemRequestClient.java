@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
@@ -16,19 +17,19 @@ public class ItemRequestClient extends BaseClient {
         super(serverUrl + "/requests", builder);
     }
 
-    public ResponseEntity<Object> create(long userId, Object body) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, Object body) {
         return post("", userId, body);
     }
 
-    public ResponseEntity<Object> getOwn(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getOwn(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
-        return get("/all?from={from}&size={size}", userId, Map.of("from", from, "size", size));
+    public CompletableFuture<ResponseEntity<Object>> getAll(long userId, int from, int size) {
+        return get("/all?from={from}&size={size}", userId, Map.of("from", from, "size", size), "requests-all");
     }
 
-    public ResponseEntity<Object> getById(long userId, long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId, long requestId) {
         return get("/{id}", userId, Map.of("id", requestId));
     }
 }
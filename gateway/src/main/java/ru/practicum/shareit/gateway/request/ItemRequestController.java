@@ -9,6 +9,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/requests")
 @RequiredArgsConstructor
@@ -18,7 +20,7 @@ public class ItemRequestController {
     private final ItemRequestClient client;
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public CompletableFuture<ResponseEntity<Object>> create(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @Valid @RequestBody ItemRequestCreateDto dto
     ) {
@@ -26,14 +28,14 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwn(
+    public CompletableFuture<ResponseEntity<Object>> getOwn(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId
     ) {
         return client.getOwn(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(
+    public CompletableFuture<ResponseEntity<Object>> getAll(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
             @RequestParam(defaultValue = "10") @Positive int size
@@ -42,7 +44,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(
+    public CompletableFuture<ResponseEntity<Object>> getById(
             @RequestHeader(BaseClient.USER_HEADER) @Positive long userId,
             @PathVariable @Positive long requestId
     ) {
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
@@ -16,15 +17,15 @@ public class UserClient extends BaseClient {
         super(serverUrl + "/users", builder);
     }
 
-    public ResponseEntity<Object> getById(long userId) {
-        return get("/{id}", 0L, Map.of("id", userId)); // заголовок не нужен для users
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId) {
+        return get("/{id}", 0L, Map.of("id", userId), "user"); // заголовок не нужен для users
     }
 
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         return get("", 0L);
     }
 
-    public ResponseEntity<Object> create(Object body) {
+    public CompletableFuture<ResponseEntity<Object>> create(Object body) {
         return post("", 0L, body);
     }
 }
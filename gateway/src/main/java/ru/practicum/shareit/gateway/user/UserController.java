@@ -7,6 +7,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -16,30 +18,30 @@ public class UserController {
     private final UserClient client;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable @Positive long id) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable @Positive long id) {
         return client.getById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         return client.getAll();
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDTO dto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Valid @RequestBody UserDTO dto) {
         validateUserCreate(dto);
         return client.create(dto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> patch(@PathVariable @Positive long userId,
+    public CompletableFuture<ResponseEntity<Object>> patch(@PathVariable @Positive long userId,
                                         @Valid @RequestBody UserDTO dto) {
         validateUserPatch(dto);
         return client.patch("/" + userId, 0L, dto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable @Positive long id) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable @Positive long id) {
         return client.delete("/" + id, 0L);
     }
 
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// сравнение режимов на одной машине: gateway с маленьким пулом Tomcat проксирует GET /users/{id}
+// на заглушку сервера, отвечающую через STUB_MILLIS. Уровень параллельности считается выдержанным,
+// если все ответы пришли с 200 и самый медленный уложился в MAX_LATENCY: запросу не пришлось ждать
+// вторую «волну» — освобождения потока Tomcat
+@Slf4j
+class VirtualThreadsLoadTest {
+
+    private static final long STUB_MILLIS = 1000;
+    private static final Duration MAX_LATENCY = Duration.ofMillis(STUB_MILLIS * 9 / 5);
+    private static final int TOMCAT_THREADS = 20;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int[] LEVELS = {10, 20, 40, 80, 160, 320};
+
+    private HttpServer stub;
+    private ExecutorService stubThreads;
+    private ExecutorService clientThreads;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        stub.createContext("/users", exchange -> {
+            try {
+                Thread.sleep(STUB_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = "{\"id\":1,\"name\":\"u\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bytes);
+            }
+        });
+        // заглушка и клиент — на платформенных потоках: carrier'ы виртуальных остаются только gateway
+        stubThreads = Executors.newCachedThreadPool();
+        stub.setExecutor(stubThreads);
+        stub.start();
+
+        clientThreads = Executors.newCachedThreadPool();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientThreads)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+        stubThreads.shutdownNow();
+        clientThreads.shutdownNow();
+    }
+
+    @Test
+    void virtualThreads_sustainMoreConcurrentRequests_thanPlatformPool() throws Exception {
+        int platform = maxSustainedConcurrency(false);
+        int virtual = maxSustainedConcurrency(true);
+
+        log.info("Выдержанная параллельность при {} потоках Tomcat и ответе сервера за {} ms: "
+                + "платформенные потоки — {}, виртуальные — {}", TOMCAT_THREADS, STUB_MILLIS, platform, virtual);
+        assertTrue(platform <= TOMCAT_THREADS, "platform " + platform);
+        assertTrue(virtual > platform, platform + " vs " + virtual);
+    }
+
+    private int maxSustainedConcurrency(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGatewayApp.class)
+                .run("--server.port=0",
+                        "--shareit-server.url=http://localhost:" + stub.getAddress().getPort(),
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--shareit-gateway.proxy.pool.max-total=1000",
+                        // каждый запрос должен доходить до заглушки
+                        "--shareit-gateway.cache.ttl.user=0s",
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/users/1");
+
+            // прогрев: JIT, ленивые бины
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                fire(uri, TOMCAT_THREADS);
+            }
+            int sustained = 0;
+            for (int level : LEVELS) {
+                // первый заход открывает новые соединения клиент→gateway→сервер, меряется второй
+                fire(uri, level);
+                Duration slowest = fire(uri, level);
+                log.info("virtual={} параллельно {}: самый медленный ответ {} ms",
+                        virtualThreads, level, slowest.toMillis());
+                if (slowest.compareTo(MAX_LATENCY) > 0) break;
+                sustained = level;
+            }
+            return sustained;
+        }
+    }
+
+    // не-200 ответ считается бесконечно медленным: такой уровень не выдержан
+    private Duration fire(URI uri, int concurrency) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        List<CompletableFuture<Duration>> calls = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            long started = System.nanoTime();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(response -> response.statusCode() == 200
+                            ? Duration.ofNanos(System.nanoTime() - started)
+                            : Duration.ofDays(1)));
+        }
+        Duration slowest = Duration.ZERO;
+        for (CompletableFuture<Duration> call : calls) {
+            Duration latency = call.get(60, TimeUnit.SECONDS);
+            if (latency.compareTo(slowest) > 0) slowest = latency;
+        }
+        return slowest;
+    }
+}
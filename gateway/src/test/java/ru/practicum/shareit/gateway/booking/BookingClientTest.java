@@ -10,6 +10,7 @@ import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
 
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
@@ -37,6 +38,19 @@ class BookingClientTest {
         server.verify();
     }
 
+    @Test
+    void approveAll_patchesBatchWithRowsAsBody() {
+        server.expect(requestTo("http://localhost:9090/bookings/batch"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andExpect(header(BaseClient.USER_HEADER, "3"))
+                .andExpect(jsonPath("$[0].bookingId").value(11))
+                .andExpect(jsonPath("$[0].approved").value(false))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        client.approveAll(3L, java.util.List.of(new BookingDecisionDto(11L, false)));
+        server.verify();
+    }
+
     @Test
     void getOwner_buildsOwnerUrlWithQueryParams() {
         server.expect(requestTo("http://localhost:9090/bookings/owner?state=ALL&from=0&size=10"))
@@ -44,7 +58,30 @@ class BookingClientTest {
                 .andExpect(header(BaseClient.USER_HEADER, "1"))
                 .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
 
-        client.getOwner(1L, "ALL", 0, 10);
+        client.getOwner(1L, "ALL", 0, 10, null, null, null);
+        server.verify();
+    }
+
+    @Test
+    void getMy_passesCursorThrough() {
+        server.expect(requestTo("http://localhost:9090/bookings?state=ALL&from=0&size=10&after=MjAzMC0wMS0wMVQxMDowMHwxMg"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(BaseClient.USER_HEADER, "2"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        client.getMy(2L, "ALL", 0, 10, "MjAzMC0wMS0wMVQxMDowMHwxMg", null, null);
+        server.verify();
+    }
+
+    @Test
+    void getOwner_passesRangeThrough() {
+        server.expect(requestTo("http://localhost:9090/bookings/owner?state=PAST&from=0&size=10"
+                        + "&start=2030-01-01T10%3A00&end=2030-01-02T10%3A00"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        client.getOwner(1L, "PAST", 0, 10, null,
+                LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 2, 10, 0));
         server.verify();
     }
 
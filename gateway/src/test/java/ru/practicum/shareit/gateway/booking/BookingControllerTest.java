@@ -13,7 +13,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.gateway.exception.GatewayErrorHandler;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,6 +31,7 @@ class BookingControllerTest {
     @Autowired private ObjectMapper mapper;
 
     @MockBean private BookingClient client;
+    @MockBean private BookingEventsRelay eventsRelay;
 
     @Test
     void getMy_unknownState_returns400() throws Exception {
@@ -40,6 +43,17 @@ class BookingControllerTest {
         verifyNoInteractions(client);
     }
 
+    @Test
+    void getOwner_rangeStartNotBeforeEnd_returns400() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("start", "2030-01-02T10:00:00")
+                        .param("end", "2030-01-01T10:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("start must be before end")));
+        verifyNoInteractions(client);
+    }
+
     @Test
     void create_invalidDates_returns400() throws Exception {
         BookingInputDto dto = new BookingInputDto(1L,
@@ -58,19 +72,49 @@ class BookingControllerTest {
     @Test
     void create_valid_callsClient() throws Exception {
         Mockito.when(client.create(eq(1L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("ok", true)));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(Map.of("ok", true))));
 
         BookingInputDto dto = new BookingInputDto(1L,
                 LocalDateTime.now().plusHours(1),
                 LocalDateTime.now().plusHours(2));
 
-        mvc.perform(post("/bookings")
+        mvc.perform(asyncDispatch(mvc.perform(post("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(dto)))
+                        .content(mapper.writeValueAsString(dto))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.ok").value(true));
 
         Mockito.verify(client).create(eq(1L), any());
     }
+
+    @Test
+    void approveAll_invalidRows_returns400() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(5L, null)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("approved")));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void approveAll_valid_callsClient() throws Exception {
+        Mockito.when(client.approveAll(eq(1L), anyList()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(List.of(Map.of("bookingId", 5, "status", 200)))));
+
+        mvc.perform(asyncDispatch(mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(5L, true))))).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(200));
+    }
 }
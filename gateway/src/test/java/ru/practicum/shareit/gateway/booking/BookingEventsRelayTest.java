@@ -0,0 +1,111 @@
+package ru.practicum.shareit.gateway.booking;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.gateway.exception.GatewayErrorHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(controllers = BookingController.class)
+@Import({GatewayErrorHandler.class, BookingEventsRelay.class})
+class BookingEventsRelayTest {
+
+    private static final String EVENTS = "event:status\ndata:{\"id\":5,\"status\":\"WAITING\"}\n\n"
+            + "event:status\ndata:{\"id\":5,\"status\":\"APPROVED\"}\n\n";
+
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired private MockMvc mvc;
+
+    @MockBean private BookingClient client;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void events_relayedLineByLine() throws Exception {
+        MvcResult result = mvc.perform(get("/bookings/5/events").header("X-Sharer-User-Id", 2))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MockHttpServletResponse response = relayed(result);
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, response.getContentType());
+        assertEquals(EVENTS, response.getContentAsString());
+    }
+
+    @Test
+    void serverError_keepsStatusAndBody() throws Exception {
+        MvcResult result = mvc.perform(get("/bookings/404/events").header("X-Sharer-User-Id", 2))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MockHttpServletResponse response = relayed(result);
+        assertEquals(404, response.getStatus());
+        assertEquals("{\"error\":\"Бронирование не найдено\"}\n", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    // первый async — ответ сервера (статус и заголовки), второй — сам поток строк до его закрытия
+    private MockHttpServletResponse relayed(MvcResult result) throws Exception {
+        MvcResult stream = mvc.perform(asyncDispatch(result)).andReturn();
+        stream.getAsyncResult(5_000);
+        return stream.getResponse();
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/bookings/5/events", exchange -> {
+                if (!"2".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"))) {
+                    exchange.sendResponseHeaders(400, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().add("Content-Type", MediaType.TEXT_EVENT_STREAM_VALUE);
+                write(exchange, 200, EVENTS);
+            });
+            server.createContext("/bookings/404/events", exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+                write(exchange, 404, "{\"error\":\"Бронирование не найдено\"}");
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void write(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
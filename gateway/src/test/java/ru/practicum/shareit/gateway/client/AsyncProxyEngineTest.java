@@ -0,0 +1,150 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.search.Search;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncProxyEngineTest {
+
+    private static final int IN_FLIGHT = 50;
+    private static final long SLOW_MILLIS = 300;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private AsyncProxyEngine engine;
+    private TestClient client;
+
+    static class TestClient extends BaseClient {
+        TestClient(String baseUrl, RestTemplateBuilder builder) {
+            super(baseUrl, builder);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> find(long userId, String text) {
+            return get("/find?text={text}", userId, Map.of("text", text));
+        }
+
+        CompletableFuture<ResponseEntity<Object>> slow(long userId) {
+            return get("/slow", userId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/find", exchange -> write(exchange, 404,
+                "{\"error\":\"" + exchange.getRequestHeaders().getFirst(BaseClient.USER_HEADER)
+                        + " " + exchange.getRequestURI().getRawQuery() + "\"}"));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(SLOW_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            write(exchange, 200, "[1,2]");
+        });
+        serverThreads = Executors.newFixedThreadPool(IN_FLIGHT);
+        server.setExecutor(serverThreads);
+        server.start();
+
+        engine = new AsyncProxyEngine(new ObjectMapper(), new ServerPoolSettings(IN_FLIGHT, IN_FLIGHT,
+                Duration.ofMinutes(5), Duration.ofSeconds(2), Duration.ofSeconds(15), Duration.ofSeconds(30)));
+        client = new TestClient("http://localhost:" + server.getAddress().getPort(), new RestTemplateBuilder());
+        client.setAsyncEngine(engine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void async_keepsStatusBodyAndHeaders_likeRestTemplate() throws Exception {
+        ResponseEntity<Object> response = client.find(7L, "дрель 2").get(5, TimeUnit.SECONDS);
+
+        assertEquals(404, response.getStatusCode().value());
+        assertEquals(Map.of("error", "7 text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C%202"), response.getBody());
+        assertFalse(response.getHeaders().containsKey("Content-Length"), "hop-by-hop header leaked");
+    }
+
+    @Test
+    void async_passThrough_returnsServerBytes() throws Exception {
+        client.setPassThrough(true);
+
+        ResponseEntity<Object> response = client.find(7L, "x").get(5, TimeUnit.SECONDS);
+
+        assertEquals(404, response.getStatusCode().value());
+        assertArrayEquals("{\"error\":\"7 text=x\"}".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    // один вызывающий поток держит IN_FLIGHT медленных запросов: отправка не ждёт ответов
+    @Test
+    void async_callerThreadIsNotHeldWhileServerIsSlow() throws Exception {
+        long started = System.nanoTime();
+        List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            responses.add(client.slow(1L));
+        }
+        long submitMillis = (System.nanoTime() - started) / 1_000_000;
+
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        long totalMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(submitMillis < SLOW_MILLIS, "submit took " + submitMillis + " ms");
+        assertTrue(totalMillis < SLOW_MILLIS * 5, "total " + totalMillis + " ms");
+        assertEquals(List.of(1, 2), responses.get(IN_FLIGHT - 1).get().getBody());
+    }
+
+    // пул асинхронного клиента настраивается и виден в метриках так же, как блокирующий
+    @Test
+    void asyncPool_followsSharedSettings_andIsMetered() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        engine.bindTo(registry);
+
+        client.slow(1L).get(5, TimeUnit.SECONDS);
+
+        assertEquals(IN_FLIGHT, pool(registry, "httpcomponents.httpclient.pool.total.max").gauge().value());
+        assertEquals(IN_FLIGHT, pool(registry, "httpcomponents.httpclient.pool.route.max.default").gauge().value());
+        assertEquals(1.0, pool(registry, "httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value());
+    }
+
+    private static Search pool(SimpleMeterRegistry registry, String name) {
+        return registry.find(name).tag("httpclient", "shareit-server-async");
+    }
+
+    private static void write(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
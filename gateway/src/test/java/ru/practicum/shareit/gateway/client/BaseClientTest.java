@@ -4,11 +4,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
@@ -22,6 +28,10 @@ class BaseClientTest {
         void ping(long userId) {
             get("/ping", userId);
         }
+
+        CompletableFuture<ResponseEntity<Object>> bookings(long userId) {
+            return get("/bookings", userId);
+        }
     }
 
     @Test
@@ -39,6 +49,24 @@ class BaseClientTest {
         server.verify();
     }
 
+    @Test
+    void passThrough_returnsServerBytes_withoutHopHeaders() throws Exception {
+        TestClient client = new TestClient("http://localhost:9090", new RestTemplateBuilder());
+        client.setPassThrough(true);
+        String json = "[{\"id\":1,\"status\":\"WAITING\",\"item\":{\"name\":\"Дрель\"}}]";
+
+        MockRestServiceServer server = MockRestServiceServer.bindTo(extractRestTemplate(client)).build();
+        server.expect(requestTo("http://localhost:9090/bookings"))
+                .andRespond(withSuccess(json, MediaType.APPLICATION_JSON).header("Connection", "keep-alive"));
+
+        ResponseEntity<Object> response = client.bookings(5L).get();
+
+        server.verify();
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey("Connection"));
+    }
+
     private static RestTemplate extractRestTemplate(BaseClient client) throws Exception {
         Field f = BaseClient.class.getDeclaredField("rest");
         f.setAccessible(true);
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.gateway.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ResponseCacheTest {
+
+    private static final String BASE = "http://localhost:9090/items";
+
+    private TestClient client;
+    private MockRestServiceServer server;
+
+    static class TestClient extends BaseClient {
+        TestClient(String baseUrl, RestTemplateBuilder builder) {
+            super(baseUrl, builder);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> card(long userId, long itemId) {
+            return get("/{id}", userId, Map.of("id", itemId), "fresh");
+        }
+
+        CompletableFuture<ResponseEntity<Object>> search(long userId, String text) {
+            return get("/search?text={text}", userId, Map.of("text", text), "stale");
+        }
+
+        CompletableFuture<ResponseEntity<Object>> freshSearch(long userId, String text) {
+            return get("/search?text={text}", userId, Map.of("text", text), "fresh");
+        }
+
+        CompletableFuture<ResponseEntity<Object>> comment(long userId, long itemId) {
+            return post("/{id}/comment", userId, (Object) Map.of("text", "ok"), Map.of("id", itemId));
+        }
+
+        CompletableFuture<ResponseEntity<Object>> update(long userId, long itemId) {
+            return patch("/{id}", userId, (Object) Map.of("name", "new"), Map.of("id", itemId));
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit-gateway.cache.ttl.fresh", "1m")
+                .withProperty("shareit-gateway.cache.ttl.stale", "1ms");
+        client = new TestClient(BASE, new RestTemplateBuilder());
+        client.setResponseCache(new ResponseCache(environment, 100, Duration.ofMinutes(5)));
+        server = MockRestServiceServer.bindTo(extractRestTemplate(client)).build();
+    }
+
+    @Test
+    void freshResponse_isServedPerUser_untilClientWrites() throws Exception {
+        server.expect(requestTo(BASE + "/1")).andExpect(header(BaseClient.USER_HEADER, "5"))
+                .andRespond(withSuccess("{\"name\":\"old\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/1")).andExpect(header(BaseClient.USER_HEADER, "6"))
+                .andRespond(withSuccess("{\"name\":\"old\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/1")).andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"name\":\"new\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/1")).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"name\":\"new\"}", MediaType.APPLICATION_JSON));
+
+        client.card(5, 1).get();
+        client.card(5, 1).get();
+        client.card(6, 1).get();
+        client.update(5, 1).get();
+
+        assertEquals(Map.of("name", "new"), client.card(5, 1).get().getBody());
+        server.verify();
+    }
+
+    @Test
+    void write_evictsItsResourceAndLists_butKeepsOtherCards() throws Exception {
+        server.expect(requestTo(BASE + "/1")).andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/2")).andRespond(withSuccess("{\"id\":2}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/search?text=drill"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/1/comment")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/1")).andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE + "/search?text=drill"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        client.card(5, 1).get();
+        client.card(5, 2).get();
+        client.freshSearch(5, "drill").get();
+        client.comment(6, 1).get();
+
+        client.card(5, 1).get();
+        client.card(5, 2).get();
+        client.freshSearch(5, "drill").get();
+        server.verify();
+    }
+
+    @Test
+    void staleResponse_isRevalidatedWithEtag() throws Exception {
+        server.expect(requestTo(BASE + "/search?text=drill")).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, "\"v1\""));
+        server.expect(requestTo(BASE + "/search?text=drill")).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "\"v1\""));
+
+        client.search(5, "drill").get();
+        Thread.sleep(5);
+        ResponseEntity<Object> revalidated = client.search(5, "drill").get();
+
+        assertEquals(200, revalidated.getStatusCode().value());
+        assertEquals(List.of(Map.of("id", 1)), revalidated.getBody());
+        server.verify();
+    }
+
+    private static RestTemplate extractRestTemplate(BaseClient client) throws Exception {
+        Field f = BaseClient.class.getDeclaredField("rest");
+        f.setAccessible(true);
+        return (RestTemplate) f.get(client);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RestClientConfigTest {
+
+    private final RestClientConfig config = new RestClientConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager manager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate rest;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ping", exchange -> {
+            byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bytes);
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        ServerPoolSettings settings = new ServerPoolSettings(40, 30, Duration.ofMinutes(5), Duration.ofSeconds(2),
+                Duration.ofSeconds(15), Duration.ofMillis(200));
+        manager = config.serverConnectionManager(settings);
+        config.serverConnectionPoolMetrics(manager).bindTo(registry);
+        httpClient = config.serverHttpClient(manager, settings);
+        rest = config.restTemplateBuilder(httpClient, manager, false).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void pool_limitsAndGauges_followSettings() {
+        assertEquals(40, manager.getMaxTotal());
+        assertEquals(30, manager.getDefaultMaxPerRoute());
+        assertEquals(40.0, registry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+        assertEquals(30.0, registry.get("httpcomponents.httpclient.pool.route.max.default").gauge().value());
+
+        ResponseEntity<String> response = rest.getForEntity(baseUrl + "/ping", String.class);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1.0, connections("available"));
+        assertEquals(0.0, connections("leased"));
+        assertEquals(0.0, registry.get("httpcomponents.httpclient.pool.total.pending").gauge().value());
+    }
+
+    // простаивающее соединение закрывает фоновый evictor, не дожидаясь keep-alive
+    @Test
+    void idleConnection_isEvicted() throws Exception {
+        rest.getForEntity(baseUrl + "/ping", String.class);
+        assertEquals(1.0, connections("available"));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (connections("available") > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0.0, connections("available"));
+        assertEquals(0, manager.getTotalStats().getLeased());
+    }
+
+    private double connections(String state) {
+        return registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", state).gauge().value();
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.gateway.client.BaseClient;
 
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
 
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
@@ -37,14 +38,42 @@ class ItemClientTest {
         server.verify();
     }
 
+    @Test
+    void createAll_postsToBatch() {
+        server.expect(requestTo("http://localhost:9090/items/batch"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(BaseClient.USER_HEADER, "4"))
+                .andExpect(jsonPath("$[0].name").value("Drill"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        ItemDto dto = new ItemDto();
+        dto.setName("Drill");
+        client.createAll(4L, java.util.List.of(dto));
+        server.verify();
+    }
+
     @Test
     void search_buildsQuery() {
-        server.expect(requestTo("http://localhost:9090/items/search?text=drill"))
+        server.expect(requestTo("http://localhost:9090/items/search?text=drill&from=0&size=10&ranked=true"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header(BaseClient.USER_HEADER, "1"))
                 .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
 
-        client.search(1L, "drill");
+        client.search(1L, "drill", 0, 10, true);
+        server.verify();
+    }
+
+    @Test
+    void getAvailability_passesOnlyGivenBounds() {
+        server.expect(requestTo("http://localhost:9090/items/7/availability?from=2030-01-01T10%3A00"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(BaseClient.USER_HEADER, "1"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://localhost:9090/items/7/availability?to=2030-01-02T10%3A00"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        client.getAvailability(1L, 7L, LocalDateTime.of(2030, 1, 1, 10, 0), null);
+        client.getAvailability(1L, 7L, null, LocalDateTime.of(2030, 1, 2, 10, 0));
         server.verify();
     }
 
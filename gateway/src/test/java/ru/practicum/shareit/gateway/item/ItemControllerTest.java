@@ -12,7 +12,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.gateway.exception.GatewayErrorHandler;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,17 +47,17 @@ class ItemControllerTest {
     @Test
     void create_valid_callsClient() throws Exception {
         Mockito.when(client.create(eq(1L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 1)));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(Map.of("id", 1))));
 
         ItemDto dto = new ItemDto();
         dto.setName("Drill");
         dto.setDescription("d");
         dto.setAvailable(true);
 
-        mvc.perform(post("/items")
+        mvc.perform(asyncDispatch(mvc.perform(post("/items")
                         .header("X-Sharer-User-Id", 1)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(dto)))
+                        .content(mapper.writeValueAsString(dto))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1));
 
@@ -74,4 +76,36 @@ class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").exists());
     }
+
+    @Test
+    void availability_fromNotBeforeTo_returns400() throws Exception {
+        mvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "2030-01-02T10:00:00")
+                        .param("to", "2030-01-01T10:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("from must be before to")));
+
+        Mockito.verifyNoInteractions(client);
+    }
+
+    @Test
+    void createAll_invalidRow_returns400() throws Exception {
+        ItemDto valid = new ItemDto();
+        valid.setName("Drill");
+        valid.setDescription("d");
+        valid.setAvailable(true);
+        ItemDto invalid = new ItemDto();
+        invalid.setName("Saw");
+        invalid.setDescription("d");
+
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(valid, invalid))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("available must not be null")));
+
+        Mockito.verifyNoInteractions(client);
+    }
 }
@@ -15,9 +15,11 @@ import ru.practicum.shareit.gateway.exception.GatewayErrorHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -47,12 +49,12 @@ class ItemRequestControllerTest {
         out.setItems(List.of());
 
         Mockito.when(client.create(anyLong(), any()))
-                .thenReturn(ResponseEntity.ok(out));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(out)));
 
-        mvc.perform(post("/requests")
+        mvc.perform(asyncDispatch(mvc.perform(post("/requests")
                         .header("X-Sharer-User-Id", 1)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(in)))
+                        .content(mapper.writeValueAsString(in))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(1))
@@ -12,11 +12,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.gateway.exception.GatewayErrorHandler;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -44,18 +48,32 @@ class UserControllerTest {
 
     @Test
     void create_valid_callsClient() throws Exception {
-        Mockito.when(client.create(any())).thenReturn(ResponseEntity.ok(Map.of("id", 1)));
+        Mockito.when(client.create(any())).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(Map.of("id", 1))));
 
         UserDTO dto = new UserDTO();
         dto.setName("Ann");
         dto.setEmail("ann@b.ru");
 
-        mvc.perform(post("/users")
+        mvc.perform(asyncDispatch(mvc.perform(post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(dto)))
+                        .content(mapper.writeValueAsString(dto))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1));
 
         Mockito.verify(client).create(eq(dto));
     }
+
+    // pass-through: байты сервера уходят клиенту без изменений, Content-Type — серверный
+    @Test
+    void getById_passThroughBody_isWrittenVerbatim() throws Exception {
+        String json = "{\"id\":1,\"name\":\"Анна\",\"email\":\"ann@b.ru\"}";
+        Mockito.when(client.getById(1L)).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.getBytes(StandardCharsets.UTF_8))));
+
+        mvc.perform(asyncDispatch(mvc.perform(get("/users/1")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(json.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -2,10 +2,25 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @SpringBootApplication
+@EnableScheduling
 public class ShareItServerApp {
     public static void main(String[] args) {
         SpringApplication.run(ShareItServerApp.class, args);
     }
+
+    // ETag по телу ответа для GET вещей, запросов и пользователей: gateway перепроверяет свой кэш
+    // через If-None-Match и получает 304 без тела. /bookings не входит — там SSE-поток, а фильтр
+    // буферизует ответ целиком
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/requests/*", "/users/*");
+        return registration;
+    }
 }
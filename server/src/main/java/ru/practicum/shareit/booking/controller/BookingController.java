@@ -4,13 +4,22 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingEvents;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,7 +29,9 @@ import java.util.List;
 public class BookingController {
 
     private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final BookingEvents bookingEvents;
 
     @PostMapping
     public BookingDto addBooking(@RequestHeader(USER_HEADER) @Positive long userId,
@@ -35,28 +46,66 @@ public class BookingController {
         return bookingService.approveOrRejectBooking(userId, bookingId, approved);
     }
 
+    // пакетное одобрение/отклонение: результат по каждой строке в порядке запроса
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveAll(@RequestHeader(USER_HEADER) @Positive long userId,
+                                                     @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.approveOrRejectBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader(USER_HEADER) @Positive long userId,
                                      @PathVariable @Positive long bookingId) {
         return bookingService.getBookingById(bookingId, userId);
     }
 
+    // SSE: текущий статус сразу, затем решение владельца; для уже решённой заявки поток сразу закрывается
+    @GetMapping("/{bookingId}/events")
+    public SseEmitter events(@RequestHeader(USER_HEADER) @Positive long userId,
+                             @PathVariable @Positive long bookingId) {
+        return bookingEvents.subscribe(bookingId, () -> bookingService.getBookingById(bookingId, userId));
+    }
+
     @GetMapping
-    public List<BookingDto> getBookingsOfCurrentUser(@RequestHeader(USER_HEADER) @Positive long userId,
-                                                     @RequestParam(defaultValue = "ALL") String state,
-                                                     @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                     @RequestParam(defaultValue = "10") @Positive int size) {
-        List<BookingDto> all = bookingService.getBookingsOfCurrentUser(parseState(state), userId);
-        return paginate(all, from, size);
+    public ResponseEntity<List<BookingDto>> getBookingsOfCurrentUser(
+            @RequestHeader(USER_HEADER) @Positive long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        BookingFilter filter = BookingFilter.ofBooker(userId, parseState(state)).overlapping(start, end);
+        return page(filter, from, size, after);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsOfOwnerItems(@RequestHeader(USER_HEADER) @Positive long userId,
-                                                    @RequestParam(defaultValue = "ALL") String state,
-                                                    @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                    @RequestParam(defaultValue = "10") @Positive int size) {
-        List<BookingDto> all = bookingService.getBookingsOfOwner(parseState(state), userId);
-        return paginate(all, from, size);
+    public ResponseEntity<List<BookingDto>> getBookingsOfOwnerItems(
+            @RequestHeader(USER_HEADER) @Positive long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        BookingFilter filter = BookingFilter.ofOwner(userId, parseState(state)).overlapping(start, end);
+        return page(filter, from, size, after);
+    }
+
+    private ResponseEntity<List<BookingDto>> page(BookingFilter filter, int from, int size, String after) {
+        List<BookingDto> page = after == null
+                ? bookingService.getBookings(filter, from, size)
+                : bookingService.getBookings(filter, BookingCursor.decode(after), size);
+        return withNextCursor(page, size);
+    }
+
+    // полная страница -> отдаём курсор на следующую (?after=...), неполная — это конец истории
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> page, int size) {
+        if (page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        String next = BookingCursor.of(page.get(page.size() - 1)).encode();
+        return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next).body(page);
     }
 
     private State parseState(String state) {
@@ -66,10 +115,4 @@ public class BookingController {
             throw new IllegalArgumentException("Unknown state: " + state);
         }
     }
-
-    private <T> List<T> paginate(List<T> list, int from, int size) {
-        if (from >= list.size()) return List.of();
-        int to = Math.min(from + size, list.size());
-        return list.subList(from, to);
-    }
 }
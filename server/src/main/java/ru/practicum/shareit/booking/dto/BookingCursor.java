@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// непрозрачный курсор для seek-пагинации истории бронирований по (start_time, id) desc
+public record BookingCursor(LocalDateTime startTime, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static BookingCursor of(BookingDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) throw new ValidationException("Некорректный курсор: " + value);
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = startTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// одна строка PATCH /bookings/batch
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+    private Long bookingId;
+    private Boolean approved;
+}
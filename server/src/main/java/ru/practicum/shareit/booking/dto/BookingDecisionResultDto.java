@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+// результат по строке пакета: status — HTTP-код, который вернул бы одиночный PATCH /bookings/{id}
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private int status;
+    private String error;
+    private BookingDto booking;
+
+    public static BookingDecisionResultDto ok(BookingDto booking) {
+        return new BookingDecisionResultDto(booking.getId(), HttpStatus.OK.value(), null, booking);
+    }
+
+    public static BookingDecisionResultDto failed(Long bookingId, HttpStatus status, String error) {
+        return new BookingDecisionResultDto(bookingId, status.value(), error, null);
+    }
+}
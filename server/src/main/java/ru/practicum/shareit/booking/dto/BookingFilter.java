@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+
+// что показать в списке бронирований: чьи (арендатора или владельца вещей), в каком состоянии
+// и, если задан диапазон, только пересекающиеся с [rangeStart, rangeEnd)
+public record BookingFilter(Party party, long userId, State state, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+
+    public enum Party { BOOKER, OWNER }
+
+    public static BookingFilter ofBooker(long bookerId, State state) {
+        return new BookingFilter(Party.BOOKER, bookerId, state, null, null);
+    }
+
+    public static BookingFilter ofOwner(long ownerId, State state) {
+        return new BookingFilter(Party.OWNER, ownerId, state, null, null);
+    }
+
+    public BookingFilter overlapping(LocalDateTime start, LocalDateTime end) {
+        return new BookingFilter(party, userId, state, start, end);
+    }
+}
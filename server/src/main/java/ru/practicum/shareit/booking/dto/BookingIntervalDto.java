@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+// интервал бронирования без сущностей: проекция для календаря занятости вещи
+public record BookingIntervalDto(Long id, LocalDateTime start, LocalDateTime end) {
+}
@@ -1,38 +1,27 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
 
-    // Booker
-    List<Booking> findAllByBookerIdOrderByStartTimeDesc(long bookerId);
+    // карточка бронирования для BookingCache: item и booker тем же select'ом
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(long id);
 
-    List<Booking> findAllByBookerIdAndStartTimeBeforeAndEndTimeAfterOrderByStartTimeDesc(
-            long bookerId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findAllByBookerIdAndEndTimeBeforeOrderByStartTimeDesc(long bookerId, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdAndStartTimeAfterOrderByStartTimeDesc(long bookerId, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartTimeDesc(long bookerId, Status status);
-
-    // Owner (item.userId)
-    List<Booking> findAllByItemUserIdOrderByStartTimeDesc(long ownerId);
-
-    List<Booking> findAllByItemUserIdAndStartTimeBeforeAndEndTimeAfterOrderByStartTimeDesc(
-            long ownerId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findAllByItemUserIdAndEndTimeBeforeOrderByStartTimeDesc(long ownerId, LocalDateTime now);
-
-    List<Booking> findAllByItemUserIdAndStartTimeAfterOrderByStartTimeDesc(long ownerId, LocalDateTime now);
-
-    List<Booking> findAllByItemUserIdAndStatusOrderByStartTimeDesc(long ownerId, Status status);
+    // пакетное решение владельца: все строки вместе с вещами и арендаторами одним select'ом
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
 
     // For comments
     boolean existsByItemIdAndBookerIdAndStatusAndEndTimeBefore(
@@ -44,5 +33,77 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Optional<Booking> findFirstByItemIdAndStartTimeAfterAndStatusOrderByStartTimeAsc(
             long itemId, LocalDateTime now, Status status);
-}
 
+    // last/next для пачки вещей: по одному запросу на всю страницу владельца
+    @Query("""
+            select b from Booking b
+            where b.item.id in :itemIds
+              and b.status = :status
+              and b.startTime = (
+                    select max(b2.startTime) from Booking b2
+                    where b2.item.id = b.item.id
+                      and b2.status = :status
+                      and b2.startTime < :now
+              )
+            order by b.id asc
+            """)
+    List<Booking> findLastByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                    @Param("now") LocalDateTime now,
+                                    @Param("status") Status status);
+
+    @Query("""
+            select b from Booking b
+            where b.item.id in :itemIds
+              and b.status = :status
+              and b.startTime = (
+                    select min(b2.startTime) from Booking b2
+                    where b2.item.id = b.item.id
+                      and b2.status = :status
+                      and b2.startTime > :now
+              )
+            order by b.id asc
+            """)
+    List<Booking> findNextByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                    @Param("now") LocalDateTime now,
+                                    @Param("status") Status status);
+
+    // пересечение интервалов [start, end) с бронированиями вещи в данном статусе; обслуживается idx_bookings_item_start_end
+    @Query("""
+            select count(b) > 0 from Booking b
+            where b.item.id = :itemId
+              and b.status = :status
+              and b.id <> :excludeId
+              and b.startTime < :end
+              and b.endTime > :start
+            """)
+    boolean existsOverlapping(@Param("itemId") long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("status") Status status,
+                              @Param("excludeId") long excludeId);
+
+    // брони нескольких вещей в данном статусе, пересекающие [start, end)
+    @Query("""
+            select b from Booking b
+            where b.item.id in :itemIds
+              and b.status = :status
+              and b.startTime < :end
+              and b.endTime > :start
+            """)
+    List<Booking> findOverlappingByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                           @Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end,
+                                           @Param("status") Status status);
+
+    // ещё не закончившиеся брони вещи в данных статусах — заготовка интервального дерева календаря
+    @Query("""
+            select new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.startTime, b.endTime)
+            from Booking b
+            where b.item.id = :itemId
+              and b.status in :statuses
+              and b.endTime > :after
+            """)
+    List<BookingIntervalDto> findIntervals(@Param("itemId") long itemId,
+                                           @Param("statuses") Collection<Status> statuses,
+                                           @Param("after") LocalDateTime after);
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// списки бронирований по фильтру, от новых к старым, вместе с item и booker
+public interface BookingSearchRepository {
+
+    // offset — число пропускаемых строк (from из запроса как есть), а не номер страницы
+    List<Booking> search(BookingFilter filter, LocalDateTime now, int offset, int limit);
+
+    List<Booking> search(BookingFilter filter, LocalDateTime now, BookingCursor after, int limit);
+}
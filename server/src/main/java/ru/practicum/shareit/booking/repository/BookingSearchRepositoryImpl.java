@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// любой state × диапазон × страница сводится к одним и тем же предикатам с разными значениями:
+// неиспользуемые границы получают нейтральные значения. Поэтому на каждую сторону ровно один текст
+// запроса — Hibernate разбирает его один раз (query plan cache), а в SQL всегда одна форма под индекс
+// idx_bookings_booker_* (арендатор) или idx_items_user_id + idx_bookings_item_* (владелец); см. SchemaIndexesTest
+class BookingSearchRepositoryImpl implements BookingSearchRepository {
+    private static final LocalDateTime MIN = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final Set<Status> ANY_STATUS = EnumSet.allOf(Status.class);
+    // курсор «до самого начала» — для offset-страниц
+    private static final BookingCursor FIRST = new BookingCursor(MAX, Long.MAX_VALUE);
+
+    private static final String SHAPE = """
+            select b from Booking b join fetch b.item i join fetch b.booker u
+            where %s = :userId
+              and b.startTime > :startAfter and b.startTime < :startBefore
+              and b.endTime > :endAfter and b.endTime < :endBefore
+              and b.status in :statuses
+              and b.startTime <= :cursorStart
+              and (b.startTime < :cursorStart or b.id < :cursorId)
+            order by b.startTime desc, b.id desc
+            """;
+    private static final Map<BookingFilter.Party, String> QUERIES = Map.of(
+            BookingFilter.Party.BOOKER, SHAPE.formatted("u.id"),
+            BookingFilter.Party.OWNER, SHAPE.formatted("i.userId"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> search(BookingFilter filter, LocalDateTime now, int offset, int limit) {
+        return search(filter, now, FIRST, offset, limit);
+    }
+
+    @Override
+    public List<Booking> search(BookingFilter filter, LocalDateTime now, BookingCursor after, int limit) {
+        return search(filter, now, after, 0, limit);
+    }
+
+    private List<Booking> search(BookingFilter filter, LocalDateTime now, BookingCursor after, int offset, int limit) {
+        State state = filter.state();
+        LocalDateTime rangeStart = filter.rangeStart() == null ? MIN : filter.rangeStart();
+        LocalDateTime rangeEnd = filter.rangeEnd() == null ? MAX : filter.rangeEnd();
+
+        // CURRENT: start < now < end; PAST: end < now; FUTURE: start > now; диапазон: start < rangeEnd, end > rangeStart
+        LocalDateTime startAfter = state == State.FUTURE ? now : MIN;
+        LocalDateTime startBefore = state == State.CURRENT ? earliest(now, rangeEnd) : rangeEnd;
+        LocalDateTime endAfter = state == State.CURRENT ? latest(now, rangeStart) : rangeStart;
+        LocalDateTime endBefore = state == State.PAST ? now : MAX;
+        Set<Status> statuses = switch (state) {
+            case WAITING -> Set.of(Status.WAITING);
+            case REJECTED -> Set.of(Status.REJECTED);
+            default -> ANY_STATUS;
+        };
+
+        return entityManager.createQuery(QUERIES.get(filter.party()), Booking.class)
+                .setParameter("userId", filter.userId())
+                .setParameter("startAfter", startAfter)
+                .setParameter("startBefore", startBefore)
+                .setParameter("endAfter", endAfter)
+                .setParameter("endBefore", endBefore)
+                .setParameter("statuses", statuses)
+                .setParameter("cursorStart", after.startTime())
+                .setParameter("cursorId", after.id())
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// read-through кэш для GET /bookings/{id}: арендатор опрашивает заявку, пока владелец не примет решение.
+// Вместе с BookingDto хранятся id владельца и арендатора, так что проверка доступа тоже идёт из кэша.
+// Статус меняет только решение владельца — approveOrRejectBooking(s) сбрасывают запись после коммита;
+// имена вещи и арендатора в BookingDto денормализованы, поэтому рядом держатся индексы
+// вещь → брони и пользователь (владелец или арендатор) → брони: их изменение сбрасывает только свои записи
+@Component
+public class BookingCache implements MeterBinder {
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final Cache<Long, CachedBooking> cache;
+    private final Map<Long, Set<Long>> byItem = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> byUser = new ConcurrentHashMap<>();
+
+    public record CachedBooking(BookingDto booking, long itemId, long ownerId, long bookerId) {
+    }
+
+    public BookingCache(BookingRepository bookingRepository,
+                        BookingMapper bookingMapper,
+                        @Value("${shareit.cache.bookings.max-size:10000}") long maxSize,
+                        @Value("${shareit.cache.bookings.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                // вызывается под блокировкой записи, как и загрузка: индекс не расходится с кэшем
+                .<Long, CachedBooking>evictionListener((id, cached, cause) -> unindex(id, cached))
+                .recordStats()
+                .build();
+    }
+
+    // промах — один select брони вместе с item и booker; несуществующие id не кэшируются
+    public CachedBooking get(long bookingId) {
+        return cache.get(bookingId, id -> {
+            Booking booking = bookingRepository.findWithItemAndBookerById(id)
+                    .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+            CachedBooking cached = new CachedBooking(bookingMapper.toBookingDto(booking),
+                    booking.getItem().getId(), booking.getItem().getUserId(), booking.getBooker().getId());
+            index(id, cached);
+            return cached;
+        });
+    }
+
+    public void invalidate(Collection<Long> bookingIds) {
+        AfterCommit.evict(() -> remove(bookingIds));
+    }
+
+    public void invalidateItem(long itemId) {
+        AfterCommit.evict(() -> remove(List.copyOf(byItem.getOrDefault(itemId, Set.of()))));
+    }
+
+    public void invalidateUser(long userId) {
+        AfterCommit.evict(() -> remove(List.copyOf(byUser.getOrDefault(userId, Set.of()))));
+    }
+
+    public void invalidateAll() {
+        AfterCommit.evict(() -> remove(List.copyOf(cache.asMap().keySet())));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "bookings.by-id");
+    }
+
+    // через compute, а не invalidate: запись и её след в индексах уходят атомарно относительно загрузки
+    private void remove(Collection<Long> bookingIds) {
+        for (Long id : bookingIds) {
+            cache.asMap().compute(id, (key, cached) -> {
+                if (cached != null) unindex(key, cached);
+                return null;
+            });
+        }
+    }
+
+    private void index(long bookingId, CachedBooking cached) {
+        add(byItem, cached.itemId(), bookingId);
+        add(byUser, cached.ownerId(), bookingId);
+        add(byUser, cached.bookerId(), bookingId);
+    }
+
+    private void unindex(long bookingId, CachedBooking cached) {
+        drop(byItem, cached.itemId(), bookingId);
+        drop(byUser, cached.ownerId(), bookingId);
+        drop(byUser, cached.bookerId(), bookingId);
+    }
+
+    private static void add(Map<Long, Set<Long>> index, long key, long bookingId) {
+        index.compute(key, (k, ids) -> {
+            Set<Long> set = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            set.add(bookingId);
+            return set;
+        });
+    }
+
+    private static void drop(Map<Long, Set<Long>> index, long key, long bookingId) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(bookingId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
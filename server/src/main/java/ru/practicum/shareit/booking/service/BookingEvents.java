@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// подписки на решение владельца по заявке (GET /bookings/{id}/events). SseEmitter — асинхронный ответ
+// сервлета: ожидающий клиент не держит поток, только запись в этой карте и открытое соединение.
+// Событие одно — статус после решения, после него поток закрывается
+@Slf4j
+@Component
+public class BookingEvents implements MeterBinder {
+    private static final String STATUS_EVENT = "status";
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final long timeoutMillis;
+
+    public BookingEvents(@Value("${shareit.booking-events.timeout:5m}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    // подписка регистрируется до чтения текущего статуса: решение, закоммиченное между чтением
+    // и регистрацией, иначе потерялось бы. current проверяет доступ и может бросить NotFound
+    public SseEmitter subscribe(long bookingId, Supplier<BookingDto> current) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Set<SseEmitter> emitters = subscribers.computeIfAbsent(bookingId, id -> ConcurrentHashMap.newKeySet());
+        emitters.add(emitter);
+        open.incrementAndGet();
+        Runnable unsubscribe = () -> {
+            if (emitters.remove(emitter)) open.decrementAndGet();
+            subscribers.computeIfPresent(bookingId, (id, set) -> set.isEmpty() ? null : set);
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe.run());
+
+        BookingDto snapshot;
+        try {
+            snapshot = current.get();
+        } catch (RuntimeException e) {
+            unsubscribe.run();
+            throw e;
+        }
+        send(emitter, snapshot);
+        if (snapshot.getStatus() != Status.WAITING) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    public void publish(BookingDto booking) {
+        AfterCommit.run(() -> {
+            Set<SseEmitter> emitters = subscribers.remove(booking.getId());
+            if (emitters == null) return;
+            for (SseEmitter emitter : emitters) {
+                if (emitters.remove(emitter)) open.decrementAndGet();
+                send(emitter, booking);
+                emitter.complete();
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bookings.events.subscribers", open, AtomicInteger::get)
+                .description("Открытые SSE-подписки на статус бронирования")
+                .register(registry);
+    }
+
+    private static void send(SseEmitter emitter, BookingDto booking) {
+        try {
+            emitter.send(SseEmitter.event().name(STATUS_EVENT).data(booking));
+        } catch (IOException | IllegalStateException e) {
+            // клиент ушёл раньше решения — подписка снимется через onError/onCompletion
+            log.debug("SSE-подписка на бронирование {} закрыта: {}", booking.getId(), e.getMessage());
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
-import ru.practicum.shareit.booking.model.State;
 
 import java.util.List;
 
@@ -11,9 +14,11 @@ public interface BookingService {
 
     BookingDto approveOrRejectBooking(long ownerId, long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> approveOrRejectBookings(long ownerId, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(long bookingId, long userId);
 
-    List<BookingDto> getBookingsOfCurrentUser(State state, long bookerId);
+    List<BookingDto> getBookings(BookingFilter filter, int from, int size);
 
-    List<BookingDto> getBookingsOfOwner(State state, long ownerId);
+    List<BookingDto> getBookings(BookingFilter filter, BookingCursor after, int size);
 }
@@ -1,33 +1,56 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_DECISIONS = 100;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userCache;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemBookingPointerService pointerService;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final BookingCache bookingCache;
+    private final BookingEvents bookingEvents;
 
     @Transactional
     @Override
@@ -47,7 +70,8 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("начало/конец должны быть в будущем");
         }
 
-        Item item = findItemById(dto.getItemId());
+        Item item = itemRepository.findByIdForUpdate(dto.getItemId())
+                .orElseThrow(() -> new NotFoundException("Нет такой вещи"));
 
         if (item.getAvailable() != null && !item.getAvailable()) {
             throw new ValidationException("Товар недоступен");
@@ -57,6 +81,10 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Владелец не может забронировать собственный товар");
         }
 
+        if (bookingRepository.existsOverlapping(item.getId(), dto.getStart(), dto.getEnd(), Status.APPROVED, 0L)) {
+            throw new ConflictException("Вещь уже забронирована на это время");
+        }
+
         Booking booking = Booking.builder()
                 .item(item)
                 .booker(booker)
@@ -65,19 +93,18 @@ public class BookingServiceImpl implements BookingService {
                 .status(Status.WAITING)
                 .build();
 
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        availabilityIndex.invalidate(item.getId());
+        return bookingMapper.toBookingDto(saved);
     }
 
+    @Transactional
     @Override
     public BookingDto approveOrRejectBooking(long ownerId, long bookingId, boolean approved) {
+        userCache.requireExists(ownerId);
         Booking booking = findBookingById(bookingId);
 
-        if (!booking.getItem().getUserId().equals(ownerId)) {
-            throw new ForbiddenException("Одобрить/отклонить может только владелец");
-        }
-
-        findUserById(ownerId);
-
+        // владелец проверяется до блокировки вещи: чужой запрос не должен её брать
         if (booking.getItem().getUserId() != ownerId) {
             throw new ForbiddenException("Одобрить/отклонить может только владелец");
         }
@@ -86,71 +113,164 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Решение о бронировании уже принято");
         }
 
+        if (approved) {
+            // под блокировкой вещи параллельное одобрение пересекающейся заявки дождётся нашего коммита
+            // и увидит его в проверке; повторное решение по той же заявке отсечёт @Version
+            itemRepository.findByIdForUpdate(booking.getItem().getId());
+            if (bookingRepository.existsOverlapping(booking.getItem().getId(), booking.getStartTime(),
+                    booking.getEndTime(), Status.APPROVED, booking.getId())) {
+                throw new ConflictException("На это время уже есть подтверждённое бронирование");
+            }
+        }
+
         booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        bookingCache.invalidate(List.of(bookingId));
+        if (approved) {
+            pointerService.refresh(List.of(booking.getItem().getId()));
+        } else {
+            availabilityIndex.invalidate(booking.getItem().getId());
+        }
+        BookingDto decided = bookingMapper.toBookingDto(saved);
+        bookingEvents.publish(decided);
+        return decided;
     }
 
-    @Transactional(readOnly = true)
+    // все решения пакета — в одной транзакции; ошибка строки не откатывает остальные, а попадает в её результат.
+    // Обновления статусов уходят при коммите одним JDBC-батчем (hibernate.jdbc.batch_size)
+    @Transactional
     @Override
-    public BookingDto getBookingById(long bookingId, long userId) {
-        findUserById(userId);
+    public List<BookingDecisionResultDto> approveOrRejectBookings(long ownerId, List<BookingDecisionDto> decisions) {
+        if (decisions == null || decisions.isEmpty()) throw new ValidationException("Список решений пуст");
+        if (decisions.size() > MAX_DECISIONS) {
+            throw new ValidationException("Не больше " + MAX_DECISIONS + " решений за один запрос");
+        }
+        for (BookingDecisionDto decision : decisions) {
+            if (decision == null || decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new ValidationException("bookingId и approved обязательны");
+            }
+        }
+        userCache.requireExists(ownerId);
 
-        Booking booking = findBookingById(bookingId);
+        Set<Long> ids = decisions.stream().map(BookingDecisionDto::getBookingId).collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
 
-        long ownerId = booking.getItem().getUserId();
-        long bookerId = booking.getBooker().getId();
+        // вещи одобряемых заявок блокируются одним запросом, подтверждённые брони этих вещей
+        // читаются одним запросом; пересечения внутри пакета проверяются по тому же списку
+        List<Booking> toApprove = decisions.stream()
+                .filter(BookingDecisionDto::getApproved)
+                .map(decision -> bookings.get(decision.getBookingId()))
+                .filter(booking -> booking != null && booking.getItem().getUserId() == ownerId)
+                .toList();
+        Map<Long, List<Booking>> approvedByItem = new HashMap<>();
+        if (!toApprove.isEmpty()) {
+            Set<Long> itemIds = toApprove.stream().map(booking -> booking.getItem().getId()).collect(Collectors.toSet());
+            itemRepository.findAllByIdForUpdate(itemIds);
+            LocalDateTime start = toApprove.stream().map(Booking::getStartTime).min(Comparator.naturalOrder()).orElseThrow();
+            LocalDateTime end = toApprove.stream().map(Booking::getEndTime).max(Comparator.naturalOrder()).orElseThrow();
+            for (Booking approved : bookingRepository.findOverlappingByItemIds(itemIds, start, end, Status.APPROVED)) {
+                approvedByItem.computeIfAbsent(approved.getItem().getId(), id -> new ArrayList<>()).add(approved);
+            }
+        }
 
-        if (userId != ownerId && userId != bookerId) {
-            throw new NotFoundException("Бронирование не найдено");
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        Set<Long> seen = new HashSet<>();
+        Set<Long> refreshedItems = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            if (!seen.add(bookingId)) {
+                results.add(BookingDecisionResultDto.failed(bookingId, HttpStatus.BAD_REQUEST, "Бронирование повторяется в запросе"));
+            } else if (booking == null) {
+                results.add(BookingDecisionResultDto.failed(bookingId, HttpStatus.NOT_FOUND, "Бронирование не найдено"));
+            } else if (booking.getItem().getUserId() != ownerId) {
+                results.add(BookingDecisionResultDto.failed(bookingId, HttpStatus.FORBIDDEN, "Одобрить/отклонить может только владелец"));
+            } else if (booking.getStatus() != Status.WAITING) {
+                results.add(BookingDecisionResultDto.failed(bookingId, HttpStatus.BAD_REQUEST, "Решение о бронировании уже принято"));
+            } else if (decision.getApproved() && overlapsAny(booking, approvedByItem.get(booking.getItem().getId()))) {
+                results.add(BookingDecisionResultDto.failed(bookingId, HttpStatus.CONFLICT, "На это время уже есть подтверждённое бронирование"));
+            } else {
+                // заявку, параллельно решённую одиночным PATCH, отсечёт @Version при коммите — весь пакет получит 409
+                long itemId = booking.getItem().getId();
+                if (decision.getApproved()) {
+                    booking.setStatus(Status.APPROVED);
+                    approvedByItem.computeIfAbsent(itemId, id -> new ArrayList<>()).add(booking);
+                    refreshedItems.add(itemId);
+                } else {
+                    booking.setStatus(Status.REJECTED);
+                    availabilityIndex.invalidate(itemId);
+                }
+                BookingDto decided = bookingMapper.toBookingDto(booking);
+                bookingEvents.publish(decided);
+                results.add(BookingDecisionResultDto.ok(decided));
+            }
         }
 
-        return bookingMapper.toBookingDto(booking);
+        if (!refreshedItems.isEmpty()) {
+            pointerService.refresh(refreshedItems);
+        }
+        bookingCache.invalidate(ids);
+        return results;
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<BookingDto> getBookingsOfCurrentUser(State state, long bookerId) {
-        findUserById(bookerId);
-        LocalDateTime now = LocalDateTime.now();
+    public BookingDto getBookingById(long bookingId, long userId) {
+        userCache.requireExists(userId);
 
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findAllByBookerIdOrderByStartTimeDesc(bookerId);
-            case CURRENT ->
-                    bookingRepository.findAllByBookerIdAndStartTimeBeforeAndEndTimeAfterOrderByStartTimeDesc(bookerId, now, now);
-            case PAST -> bookingRepository.findAllByBookerIdAndEndTimeBeforeOrderByStartTimeDesc(bookerId, now);
-            case FUTURE -> bookingRepository.findAllByBookerIdAndStartTimeAfterOrderByStartTimeDesc(bookerId, now);
-            case WAITING -> bookingRepository.findAllByBookerIdAndStatusOrderByStartTimeDesc(bookerId, Status.WAITING);
-            case REJECTED ->
-                    bookingRepository.findAllByBookerIdAndStatusOrderByStartTimeDesc(bookerId, Status.REJECTED);
-        };
+        BookingCache.CachedBooking cached = bookingCache.get(bookingId);
+        if (userId != cached.ownerId() && userId != cached.bookerId()) {
+            throw new NotFoundException("Бронирование не найдено");
+        }
 
-        return bookings.stream().map(bookingMapper::toBookingDto).toList();
+        return cached.booking();
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<BookingDto> getBookingsOfOwner(State state, long ownerId) {
-        findUserById(ownerId);
-        LocalDateTime now = LocalDateTime.now();
+    public List<BookingDto> getBookings(BookingFilter filter, int from, int size) {
+        validate(filter);
+        return toDtos(requireUser(filter, bookingRepository.search(filter, LocalDateTime.now(), from, size)));
+    }
 
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findAllByItemUserIdOrderByStartTimeDesc(ownerId);
-            case CURRENT ->
-                    bookingRepository.findAllByItemUserIdAndStartTimeBeforeAndEndTimeAfterOrderByStartTimeDesc(ownerId, now, now);
-            case PAST -> bookingRepository.findAllByItemUserIdAndEndTimeBeforeOrderByStartTimeDesc(ownerId, now);
-            case FUTURE -> bookingRepository.findAllByItemUserIdAndStartTimeAfterOrderByStartTimeDesc(ownerId, now);
-            case WAITING -> bookingRepository.findAllByItemUserIdAndStatusOrderByStartTimeDesc(ownerId, Status.WAITING);
-            case REJECTED ->
-                    bookingRepository.findAllByItemUserIdAndStatusOrderByStartTimeDesc(ownerId, Status.REJECTED);
-        };
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getBookings(BookingFilter filter, BookingCursor after, int size) {
+        validate(filter);
+        return toDtos(requireUser(filter, bookingRepository.search(filter, LocalDateTime.now(), after, size)));
+    }
 
+    private void validate(BookingFilter filter) {
+        if (filter.rangeStart() != null && filter.rangeEnd() != null
+                && !filter.rangeStart().isBefore(filter.rangeEnd())) {
+            throw new ValidationException("Начало диапазона должно быть раньше конца");
+        }
+    }
+
+    // непустая страница сама доказывает, что пользователь есть (у удалённого бронирования удаляются
+    // каскадом), так что список стоит один select; existsById нужен только для пустой страницы
+    private List<Booking> requireUser(BookingFilter filter, List<Booking> page) {
+        if (page.isEmpty()) {
+            userCache.requireExists(filter.userId());
+        } else {
+            userCache.remember(filter.userId());
+        }
+        return page;
+    }
+
+    private List<BookingDto> toDtos(List<Booking> bookings) {
         return bookings.stream().map(bookingMapper::toBookingDto).toList();
     }
 
-    private User findUserById(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Нет такого пользователя"));
+    private static boolean overlapsAny(Booking booking, List<Booking> approved) {
+        if (approved == null) return false;
+        return approved.stream().anyMatch(other -> other.getStartTime().isBefore(booking.getEndTime())
+                && other.getEndTime().isAfter(booking.getStartTime()));
     }
 
-    private Item findItemById(Long ItemId) {
-        return itemRepository.findById(ItemId).orElseThrow(() -> new NotFoundException("Нет такого пользователя"));
+    private User findUserById(Long userId) {
+        return userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Нет такого пользователя"));
     }
 
     private Booking findBookingById(Long bookingId) {
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exception;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -34,6 +36,22 @@ public class ErrorHandler {
         return Map.of("error", e.getMessage());
     }
 
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConflict(ConflictException e) {
+        return Map.of("error", e.getMessage());
+    }
+
+    // параллельное изменение той же строки (@Version) или не дождались блокировки — клиент может повторить
+    @ExceptionHandler({
+            OptimisticLockingFailureException.class,
+            PessimisticLockingFailureException.class
+    })
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConcurrentUpdate(Exception e) {
+        return Map.of("error", "Concurrent update, retry the request");
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public Map<String, String> handleConflict(DataIntegrityViolationException e) {
@@ -1,17 +1,24 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@Validated
 public class ItemController {
 
     private static final String HEADER = "X-Sharer-User-Id";
@@ -23,6 +30,12 @@ public class ItemController {
         return itemService.create(userId, dto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> createAll(@RequestHeader(HEADER) long userId,
+                                   @RequestBody List<ItemDto> dtos) {
+        return itemService.createAll(userId, dtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(HEADER) long userId,
                           @PathVariable long itemId,
@@ -38,17 +51,18 @@ public class ItemController {
 
     @GetMapping
     public List<ItemDto> getOwnerItems(@RequestHeader(HEADER) long userId,
-                                       @RequestParam(defaultValue = "0") int from,
-                                       @RequestParam(defaultValue = "10") int size) {
-        return itemService.getAllByOwner(userId);
+                                       @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                       @RequestParam(defaultValue = "10") @Positive int size) {
+        return itemService.getAllByOwner(userId, from, size);
     }
 
     @GetMapping("/search")
     public List<ItemDto> search(@RequestHeader(HEADER) long userId,
                                 @RequestParam String text,
-                                @RequestParam(defaultValue = "0") int from,
-                                @RequestParam(defaultValue = "10") int size) {
-        return itemService.search(userId, text);
+                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                @RequestParam(defaultValue = "10") @Positive int size,
+                                @RequestParam(defaultValue = "false") boolean ranked) {
+        return itemService.search(userId, text, from, size, ranked);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -57,5 +71,16 @@ public class ItemController {
                                  @RequestBody CommentCreateDto dto) {
         return itemService.addComment(userId, itemId, dto);
     }
+
+    // свободные промежутки вещи; по умолчанию — ближайшие 30 дней
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDto> getAvailability(@RequestHeader(HEADER) long userId,
+                                                 @PathVariable long itemId,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
 }
 
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FreeIntervalDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+// строка пакетной выборки комментариев: к CommentDto добавлен id вещи для группировки
+public record ItemCommentDto(Long itemId, CommentDto comment) {
+
+    // для constructor expression в CommentRepository
+    public ItemCommentDto(Long itemId, Long id, String text, String authorName, LocalDateTime created) {
+        this(itemId, new CommentDto(id, text, authorName, created));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// денормализованные last/next APPROVED-бронирования вещи: владелец читает их без запросов к bookings.
+// Строка актуальна, пока не наступил nextStart — после этого её пересчитывает ItemBookingPointerService
+@Entity
+@Table(name = "item_booking_pointers")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class ItemBookingPointers implements Persistable<Long> {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    // id назначается вручную, поэтому новизну отслеживаем сами, чтобы save не делал лишний select
+    @Transient
+    @Builder.Default
+    private boolean fresh = true;
+
+    public static ItemBookingPointers empty(long itemId) {
+        return ItemBookingPointers.builder().itemId(itemId).build();
+    }
+
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+
+    // перенос вычисленных указателей в уже сохранённую строку
+    public void copyFrom(ItemBookingPointers other) {
+        lastBookingId = other.lastBookingId;
+        lastBookerId = other.lastBookerId;
+        nextBookingId = other.nextBookingId;
+        nextBookerId = other.nextBookerId;
+        nextStart = other.nextStart;
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        fresh = false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ItemBookingPointers that = (ItemBookingPointers) o;
+        return Objects.equals(itemId, that.itemId)
+                && Objects.equals(lastBookingId, that.lastBookingId) && Objects.equals(lastBookerId, that.lastBookerId)
+                && Objects.equals(nextBookingId, that.nextBookingId) && Objects.equals(nextBookerId, that.nextBookerId)
+                && Objects.equals(nextStart, that.nextStart);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(itemId, lastBookingId, lastBookerId, nextBookingId, nextBookerId, nextStart);
+    }
+}
@@ -1,12 +1,38 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemIdOrderByCreatedDesc(long itemId);
+
+    // DTO собираются прямо из строк выборки, сущности Comment/User не создаются
+    @Query("""
+            select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created)
+            from Comment c
+            join c.author a
+            where c.item.id = :itemId
+            order by c.created desc, c.id desc
+            """)
+    List<CommentDto> findDtosByItemId(@Param("itemId") long itemId);
+
+    @Query("""
+            select new ru.practicum.shareit.item.dto.ItemCommentDto(c.item.id, c.id, c.text, a.name, c.created)
+            from Comment c
+            join c.author a
+            where c.item.id in :itemIds
+            order by c.created desc, c.id desc
+            """)
+    List<ItemCommentDto> findDtosByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select distinct c.item.id from Comment c where c.author.id = :authorId")
+    List<Long> findItemIdsByAuthorId(@Param("authorId") long authorId);
 }
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingPointersRepository extends JpaRepository<ItemBookingPointers, Long> {
+
+    @Query("select p.itemId from ItemBookingPointers p where p.nextStart <= :now order by p.nextStart")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("select p.itemId from ItemBookingPointers p where p.lastBookerId = :userId or p.nextBookerId = :userId")
+    List<Long> findItemIdsByBooker(@Param("userId") long userId);
+
+    @Query("""
+                select i.id from Item i
+                where not exists (select 1 from ItemBookingPointers p where p.itemId = i.id)
+                order by i.id
+            """)
+    List<Long> findItemIdsWithoutPointers(Pageable pageable);
+
+    @Query("select i.id from Item i where i.id > :afterId order by i.id")
+    List<Long> findItemIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+}
@@ -1,17 +1,33 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCandidate;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByUserIdOrderByIdAsc(long userId);
+    // блокировка строки вещи: решения по бронированиям одной вещи выполняются по очереди
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") long id);
+
+    // то же для пакета; порядок по id, чтобы параллельные пакеты не блокировали друг друга крест-накрест
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :ids order by i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    List<Item> findByUserIdOrderByIdAsc(long userId, Pageable pageable);
 
     @Query("""
                 select i from Item i
@@ -20,8 +36,41 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
                        lower(i.name) like lower(concat('%', :text, '%'))
                     or lower(i.description) like lower(concat('%', :text, '%'))
                   )
+                order by i.id asc
+            """)
+    List<Item> searchAvailable(@Param("text") String text, Pageable pageable);
+
+    // в такой форме (ilike по колонке, а не по lower(колонки)) запрос попадает в GIN-индексы pg_trgm
+    @Query(value = """
+                select * from items i
+                where i.available = true
+                  and (
+                       i.name ilike '%' || :text || '%'
+                    or i.description ilike '%' || :text || '%'
+                  )
+                order by i.id asc
+            """, nativeQuery = true)
+    List<Item> searchAvailableIlike(@Param("text") String text, Pageable pageable);
+
+    @Query("""
+                select i.id as id, i.name as name, i.description as description from Item i
+                where i.available = true
+                  and (
+                       lower(i.name) like lower(concat('%', :text, '%'))
+                    or lower(i.description) like lower(concat('%', :text, '%'))
+                  )
             """)
-    List<Item> searchAvailable(@Param("text") String text);
+    Stream<ItemSearchCandidate> streamAvailableCandidates(@Param("text") String text);
+
+    @Query(value = """
+                select i.id as id, i.name as name, i.description as description from items i
+                where i.available = true
+                  and (
+                       i.name ilike '%' || :text || '%'
+                    or i.description ilike '%' || :text || '%'
+                  )
+            """, nativeQuery = true)
+    Stream<ItemSearchCandidate> streamAvailableCandidatesIlike(@Param("text") String text);
 
     List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.paging.OffsetPageRequest;
+
+import java.util.List;
+
+// переносимый вариант (H2 и любая БД): lower(...) like '%text%' — полный скан items
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return itemRepository.searchAvailable(text, OffsetPageRequest.of(from, size));
+    }
+
+    @Override
+    public List<Item> searchRanked(String text, int from, int size) {
+        return ItemSearchRanker.rank(itemRepository, itemRepository.streamAvailableCandidates(text), text, from, size);
+    }
+}
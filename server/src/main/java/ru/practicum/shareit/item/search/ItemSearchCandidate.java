@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.search;
+
+// лёгкая проекция для ранжирования: только поля, по которым считается релевантность
+public interface ItemSearchCandidate {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+// поиск доступных вещей: регистронезависимая подстрока в name или description
+public interface ItemSearchEngine {
+    // from — смещение в строках, как и в searchRanked
+    List<Item> search(String text, int from, int size);
+
+    // то же множество вещей, но по убыванию релевантности (см. ItemSearchRanker)
+    List<Item> searchRanked(String text, int from, int size);
+
+    // хуки для реализаций со своим индексом; БД-варианты видят изменения сами
+    default void onItemSaved(Item item) {
+    }
+
+    default void onOwnerDeleted(long userId) {
+    }
+}
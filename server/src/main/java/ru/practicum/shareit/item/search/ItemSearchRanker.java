@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// ранжирование найденных вещей: совпадение в name важнее любого совпадения в description,
+// целое слово важнее подстроки. В куче держится не больше from + size лучших кандидатов
+// (сумма насыщается на Integer.MAX_VALUE)
+final class ItemSearchRanker {
+    private static final int NONE = 0;
+    private static final int SUBSTRING = 1;
+    private static final int TOKEN = 2;
+
+    // худший кандидат — на вершине кучи: меньший score, при равенстве больший id
+    private static final Comparator<Scored> WORST_FIRST = Comparator.comparingInt(Scored::score)
+            .thenComparing(Scored::id, Comparator.reverseOrder());
+
+    private final String needle;
+    private final int from;
+    private final int limit;
+    private final PriorityQueue<Scored> heap;
+
+    ItemSearchRanker(String text, int from, int size) {
+        this.needle = text.toLowerCase(Locale.ROOT);
+        this.from = from;
+        this.limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, WORST_FIRST);
+    }
+
+    // общий путь для БД-движков: кандидаты идут потоком, сущности грузятся только для страницы
+    static List<Item> rank(ItemRepository itemRepository, Stream<ItemSearchCandidate> candidates,
+                           String text, int from, int size) {
+        ItemSearchRanker ranker = new ItemSearchRanker(text, from, size);
+        try (candidates) {
+            candidates.forEach(c -> ranker.offer(c.getId(), c.getName(), c.getDescription()));
+        }
+        return ranker.load(itemRepository);
+    }
+
+    void offer(long id, String name, String description) {
+        int score = tier(name) * 3 + tier(description);
+        if (score == NONE) return;
+        Scored candidate = new Scored(id, score);
+        if (heap.size() < limit) {
+            heap.add(candidate);
+        } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    // id страницы в порядке убывания релевантности
+    List<Long> page() {
+        List<Scored> best = new ArrayList<>(heap);
+        best.sort(WORST_FIRST.reversed());
+        return best.stream().skip(from).map(Scored::id).toList();
+    }
+
+    // вещи страницы одним select'ом по id, в порядке ранжирования; вещь, удалённую после
+    // чтения кандидатов, findAllById не вернёт — она просто выпадает из страницы
+    List<Item> load(ItemRepository itemRepository) {
+        List<Long> ids = page();
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Item> byId = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private int tier(String field) {
+        if (field == null || needle.isEmpty()) return NONE;
+        String text = field.toLowerCase(Locale.ROOT);
+        int at = text.indexOf(needle);
+        if (at < 0) return NONE;
+        for (; at >= 0; at = text.indexOf(needle, at + 1)) {
+            if (isBoundary(text, at - 1) && isBoundary(text, at + needle.length())) return TOKEN;
+        }
+        return SUBSTRING;
+    }
+
+    private static boolean isBoundary(String text, int pos) {
+        return pos < 0 || pos >= text.length() || !Character.isLetterOrDigit(text.charAt(pos));
+    }
+
+    private record Scored(long id, int score) {
+    }
+}
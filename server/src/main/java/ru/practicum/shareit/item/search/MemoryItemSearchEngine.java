@@ -0,0 +1,393 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.paging.OffsetPageRequest;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// инвертированный индекс по триграммам name/description доступных вещей, целиком в памяти.
+// Строится при старте и обновляется из ItemServiceImpl после коммита; при превышении
+// shareit.search.memory.max-bytes индекс сбрасывается и поиск уходит в БД, а раз в
+// shareit.search.memory.rebuild-delay индекс пробует построиться заново — вдруг вещей стало меньше
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class MemoryItemSearchEngine implements ItemSearchEngine, MeterBinder {
+    private static final int GRAM = 3;
+    private static final int BUILD_BATCH = 1000;
+    // грубые оценки накладных расходов JVM на ключ индекса и на документ
+    private static final long GRAM_OVERHEAD = 96;
+    private static final long DOC_OVERHEAD = 128;
+
+    private final ItemRepository itemRepository;
+
+    @Value("${shareit.search.memory.max-bytes:64MB}")
+    private DataSize maxBytes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> index = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // те же id, что в docs, отсортированные: короткий запрос проверяется по всем документам без боксинга
+    private final Postings all = new Postings();
+    private long postingEntries;
+    private long textChars;
+    private volatile boolean ready;
+    private volatile boolean degraded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            Pageable page = PageRequest.of(0, BUILD_BATCH, Sort.by("id"));
+            Slice<Item> slice;
+            do {
+                slice = itemRepository.findAll(page);
+                for (Item item : slice) {
+                    put(Doc.of(item));
+                }
+                if (overBudget()) {
+                    degrade();
+                    return;
+                }
+                page = slice.nextPageable();
+            } while (slice.hasNext());
+            degraded = false;
+            ready = true;
+            log.info("Индекс поиска построен: {} вещей, {} триграмм, ~{} байт", docs.size(), index.size(), estimatedBytes());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // построение останавливается, как только индекс перерастает лимит, — неудачная попытка
+    // читает из БД не больше, чем помещается в бюджет
+    @Scheduled(initialDelayString = "${shareit.search.memory.rebuild-delay:PT10M}",
+            fixedDelayString = "${shareit.search.memory.rebuild-delay:PT10M}")
+    public void rebuildIfDegraded() {
+        if (degraded) build();
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        if (!ready || degraded) {
+            return itemRepository.searchAvailable(text, OffsetPageRequest.of(from, size));
+        }
+        String needle = normalize(text);
+        long skip = from;
+        List<Item> result = new ArrayList<>(size);
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidates(needle);
+            for (long id : candidates) {
+                if (result.size() == size) break;
+                Doc doc = docs.get(id);
+                if (doc == null || !doc.matches(needle)) continue;
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                result.add(doc.toItem());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> searchRanked(String text, int from, int size) {
+        if (!ready || degraded) {
+            return ItemSearchRanker.rank(itemRepository, itemRepository.streamAvailableCandidates(text), text, from, size);
+        }
+        String needle = normalize(text);
+        ItemSearchRanker ranker = new ItemSearchRanker(text, from, size);
+
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(needle)) {
+                Doc doc = docs.get(id);
+                if (doc != null) ranker.offer(id, doc.name(), doc.description());
+            }
+            return ranker.page().stream().map(id -> docs.get(id).toItem()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        Doc doc = Doc.of(item);
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (degraded) return;
+                put(doc);
+                if (overBudget()) degrade();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void onOwnerDeleted(long userId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                List<Long> owned = docs.values().stream()
+                        .filter(doc -> doc.userId() == userId)
+                        .map(Doc::id)
+                        .toList();
+                owned.forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.search.index.items", this, e -> e.read(() -> e.docs.size()))
+                .description("Доступные вещи в индексе поиска")
+                .register(registry);
+        Gauge.builder("shareit.search.index.grams", this, e -> e.read(() -> e.index.size()))
+                .register(registry);
+        Gauge.builder("shareit.search.index.postings", this, e -> e.read(() -> e.postingEntries))
+                .register(registry);
+        Gauge.builder("shareit.search.index.bytes", this, e -> e.read(e::estimatedBytes))
+                .description("Оценка памяти, занятой индексом поиска")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("shareit.search.index.degraded", this, e -> e.degraded ? 1 : 0)
+                .description("1, если индекс сброшен из-за лимита памяти и поиск идёт в БД")
+                .register(registry);
+    }
+
+    long estimatedBytes() {
+        return (postingEntries + all.size) * Long.BYTES + index.size() * GRAM_OVERHEAD + textChars * 2
+                + docs.size() * DOC_OVERHEAD;
+    }
+
+    // -------- индекс (вызывать под write lock) --------
+
+    private void put(Doc doc) {
+        remove(doc.id());
+        if (!doc.available()) return;
+        docs.put(doc.id(), doc);
+        all.add(doc.id());
+        textChars += doc.chars();
+        for (String gram : doc.grams()) {
+            postingEntries += index.computeIfAbsent(gram, g -> new Postings()).add(doc.id()) ? 1 : 0;
+        }
+    }
+
+    private void remove(long id) {
+        Doc old = docs.remove(id);
+        if (old == null) return;
+        all.remove(id);
+        textChars -= old.chars();
+        for (String gram : old.grams()) {
+            Postings postings = index.get(gram);
+            if (postings != null && postings.remove(id)) {
+                postingEntries--;
+                if (postings.size == 0) index.remove(gram);
+            }
+        }
+    }
+
+    private void clear() {
+        index.clear();
+        docs.clear();
+        all.clear();
+        postingEntries = 0;
+        textChars = 0;
+    }
+
+    private boolean overBudget() {
+        return estimatedBytes() > maxBytes.toBytes();
+    }
+
+    private void degrade() {
+        log.warn("Индекс поиска превысил лимит {} — сброшен, поиск переключён на БД", maxBytes);
+        clear();
+        degraded = true;
+        ready = true;
+    }
+
+    // -------- чтение (вызывать под read lock) --------
+
+    // пересечение списков по всем триграммам запроса; короткий запрос проверяется по всем документам
+    private long[] candidates(String needle) {
+        if (needle.length() < GRAM) {
+            return Arrays.copyOf(all.ids, all.size);
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : gramsOf(needle)) {
+            Postings postings = index.get(gram);
+            if (postings == null) return new long[0];
+            lists.add(postings);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        long[] acc = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        for (int i = 1; i < lists.size() && acc.length > 0; i++) {
+            acc = lists.get(i).intersect(acc);
+        }
+        return acc;
+    }
+
+    private <T> T read(Supplier<T> supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> out = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            out.add(text.substring(i, i + GRAM));
+        }
+        return out;
+    }
+
+    // снимок полей вещи, чтобы индекс не держал managed-сущности
+    private record Doc(long id, long userId, String name, String description, boolean available, Long requestId,
+                       String lowerName, String lowerDescription) {
+
+        static Doc of(Item item) {
+            String name = item.getName() == null ? "" : item.getName();
+            String description = item.getDescription() == null ? "" : item.getDescription();
+            return new Doc(item.getId(), item.getUserId(), name, description,
+                    Boolean.TRUE.equals(item.getAvailable()), item.getRequestId(),
+                    normalize(name), normalize(description));
+        }
+
+        // строчные копии — отдельные строки, только если toLowerCase что-то поменял
+        long chars() {
+            long chars = name.length() + description.length();
+            if (lowerName != name) chars += lowerName.length();
+            if (lowerDescription != description) chars += lowerDescription.length();
+            return chars;
+        }
+
+        boolean matches(String needle) {
+            return lowerName.contains(needle) || lowerDescription.contains(needle);
+        }
+
+        // поля индексируются отдельно, чтобы триграммы не склеивались через границу name/description
+        Set<String> grams() {
+            Set<String> out = gramsOf(lowerName);
+            out.addAll(gramsOf(lowerDescription));
+            return out;
+        }
+
+        Item toItem() {
+            return Item.builder()
+                    .id(id)
+                    .userId(userId)
+                    .name(name)
+                    .description(description)
+                    .available(true)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+
+    // отсортированный по возрастанию long[] id вещей; новые id почти всегда дописываются в конец
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        boolean add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return true;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return false;
+            int at = -pos - 1;
+            grow();
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+            return true;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) return false;
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            if (size > 4 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        long[] intersect(long[] other) {
+            long[] out = new long[Math.min(size, other.length)];
+            int n = 0;
+            for (int i = 0, j = 0; i < size && j < other.length; ) {
+                if (ids[i] < other[j]) i++;
+                else if (ids[i] > other[j]) j++;
+                else {
+                    out[n++] = ids[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        void clear() {
+            ids = new long[4];
+            size = 0;
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// интервальное дерево бронирований одной вещи: декартово дерево по (start, id), в узле — максимум end
+// по поддереву. Поиск пересечений с [from, to) отсекает поддеревья, где все брони закончились до from,
+// и правые ветки, начинающиеся не раньше to: O(log n + k) в среднем.
+// После построения дерево не меняется: новая или отклонённая бронь сбрасывает его целиком
+final class BookingIntervalTree {
+
+    private Node root;
+
+    BookingIntervalTree(List<BookingIntervalDto> intervals) {
+        for (BookingIntervalDto interval : intervals) {
+            root = insert(root, new Node(interval));
+        }
+    }
+
+    // брони, пересекающие [from, to), в порядке начала
+    List<BookingIntervalDto> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookingIntervalDto> out = new ArrayList<>();
+        collect(root, from, to, out);
+        return out;
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<BookingIntervalDto> out) {
+        if (node == null || !node.maxEnd.isAfter(from)) return;
+        collect(node.left, from, to, out);
+        if (!node.interval.start().isBefore(to)) return;
+        if (node.interval.end().isAfter(from)) out.add(node.interval);
+        collect(node.right, from, to, out);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (compare(added.interval.start(), added.interval.id(), node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        return node.update();
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node.update();
+        return pivot.update();
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node.update();
+        return pivot.update();
+    }
+
+    private static int compare(LocalDateTime start, long id, Node node) {
+        int cmp = start.compareTo(node.interval.start());
+        return cmp != 0 ? cmp : Long.compare(id, node.interval.id());
+    }
+
+    private static final class Node {
+        private final BookingIntervalDto interval;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(BookingIntervalDto interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+
+        Node update() {
+            LocalDateTime max = interval.end();
+            if (left != null && left.maxEnd.isAfter(max)) max = left.maxEnd;
+            if (right != null && right.maxEnd.isAfter(max)) max = right.maxEnd;
+            maxEnd = max;
+            return this;
+        }
+    }
+}
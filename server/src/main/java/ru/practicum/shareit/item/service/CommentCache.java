@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// готовые списки CommentDto по вещам (created desc). Комментарии только добавляются,
+// поэтому addComment дописывает новый в начало закэшированного списка, а не сбрасывает его.
+// Вес записи — длина списка, так что одна вещь с тысячей отзывов не вытесняет тысячу других целиком.
+// Вытеснение не LRU, а W-TinyLFU Caffeine: новая запись может быть не принята, если встречалась реже
+// вытесняемой. Это сознательно: проход по каталогу (краулер, выгрузка) не смывает горячие вещи, а отвергнутая
+// вещь лишь догружается заново — частоты считаются и для отсутствующих ключей, и после нескольких
+// просмотров она попадает в кэш
+@Component
+public class CommentCache implements MeterBinder {
+    private final CommentRepository commentRepository;
+    private final Cache<Long, List<CommentDto>> cache;
+
+    public CommentCache(CommentRepository commentRepository,
+                        @Value("${shareit.cache.comments.max-weight:100000}") long maxWeight,
+                        @Value("${shareit.cache.comments.ttl:30m}") Duration ttl) {
+        this.commentRepository = commentRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long itemId, List<CommentDto> comments) -> comments.size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // промахи догружаются одним запросом-проекцией на все вещи; вещи без отзывов кэшируются пустым списком
+    public Map<Long, List<CommentDto>> getAll(Collection<Long> itemIds) {
+        return cache.getAll(itemIds, missing -> {
+            Map<Long, List<CommentDto>> loaded = new HashMap<>();
+            if (missing.size() == 1) {
+                Long itemId = missing.iterator().next();
+                loaded.put(itemId, List.copyOf(commentRepository.findDtosByItemId(itemId)));
+                return loaded;
+            }
+            for (Long itemId : missing) {
+                loaded.put(itemId, new ArrayList<>());
+            }
+            for (ItemCommentDto row : commentRepository.findDtosByItemIdIn(List.copyOf(missing))) {
+                loaded.get(row.itemId()).add(row.comment());
+            }
+            loaded.replaceAll((itemId, comments) -> List.copyOf(comments));
+            return loaded;
+        });
+    }
+
+    public void onCommentAdded(long itemId, CommentDto comment) {
+        AfterCommit.run(() -> cache.asMap().computeIfPresent(itemId, (id, comments) -> {
+            List<CommentDto> updated = new ArrayList<>(comments.size() + 1);
+            updated.add(comment);
+            updated.addAll(comments);
+            return List.copyOf(updated);
+        }));
+    }
+
+    // имя автора денормализовано в CommentDto: после patch/delete пользователя сбрасываются
+    // только вещи, которые он комментировал (один select по idx_comments_author)
+    public void invalidateAuthor(long authorId) {
+        List<Long> itemIds = commentRepository.findItemIdsByAuthorId(authorId);
+        if (itemIds.isEmpty()) return;
+        AfterCommit.evict(() -> cache.invalidateAll(itemIds));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "items.comments");
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// календарь занятости вещей: для «горячих» вещей в памяти держится интервальное дерево
+// незакончившихся APPROVED/WAITING броней. Дерево строится одним запросом при первом обращении;
+// новая заявка или отказ сбрасывают дерево вещи (как и остальные кэши — через AfterCommit.evict):
+// правка уже закэшированного дерева потерялась бы, если параллельно строится новое из старого снимка
+@Component
+public class ItemAvailabilityIndex implements MeterBinder {
+    private static final Set<Status> BLOCKING = EnumSet.of(Status.APPROVED, Status.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervalTree> trees;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.cache.availability.max-items:1000}") long maxItems,
+                                 @Value("${shareit.cache.availability.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // свободные промежутки внутри [from, to): дополнение к объединению пересекающихся броней
+    public List<FreeIntervalDto> freeIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        BookingIntervalTree tree = trees.get(itemId,
+                id -> new BookingIntervalTree(bookingRepository.findIntervals(id, BLOCKING, LocalDateTime.now())));
+
+        List<FreeIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingIntervalDto busy : tree.overlapping(from, to)) {
+            if (busy.start().isAfter(cursor)) {
+                free.add(new FreeIntervalDto(cursor, busy.start()));
+            }
+            if (busy.end().isAfter(cursor)) {
+                cursor = busy.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new FreeIntervalDto(cursor, to));
+        }
+        return free;
+    }
+
+    public void invalidate(long itemId) {
+        AfterCommit.evict(() -> trees.invalidate(itemId));
+    }
+
+    // брони удалённого пользователя и брони его вещей уходят каскадом в БД — деревья перестраиваются
+    public void invalidateAll() {
+        AfterCommit.evict(trees::invalidateAll);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, trees, "items.availability");
+    }
+}
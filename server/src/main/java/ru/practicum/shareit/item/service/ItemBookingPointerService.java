@@ -0,0 +1,186 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemBookingPointersRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// поддержка read-модели item_booking_pointers: запись при одобрении бронирования,
+// пересчёт по времени, когда next уходит в прошлое, и полная сверка с bookings.
+// load доверяет сохранённой строке, пока её next не начался, поэтому бронирования пишутся только через
+// BookingServiceImpl. Кто пишет мимо него (миграция, фикстура теста), сам вызывает refresh для своих вещей —
+// иначе карточка покажет старые last/next до ближайшего refreshExpired или сверки check
+@Slf4j
+@Service
+public class ItemBookingPointerService {
+    private static final int BATCH = 500;
+    private static final int SAMPLE = 20;
+
+    private final ItemBookingPointersRepository pointersRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate tx;
+
+    public ItemBookingPointerService(ItemBookingPointersRepository pointersRepository,
+                                     BookingRepository bookingRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.pointersRepository = pointersRepository;
+        this.bookingRepository = bookingRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    // указатели для чтения: сохранённые строки, а для отсутствующих или устаревших (до прохода
+    // планировщика) — пересчёт на лету без записи, чтобы чтение оставалось read-only
+    public Map<Long, ItemBookingPointers> load(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return Map.of();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, ItemBookingPointers> result = new HashMap<>();
+        for (ItemBookingPointers p : pointersRepository.findAllById(itemIds)) {
+            if (!p.isStale(now)) result.put(p.getItemId(), p);
+        }
+        List<Long> missing = itemIds.stream().filter(id -> !result.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            result.putAll(compute(missing, now));
+        }
+        return result;
+    }
+
+    // пустая строка для новой вещи: бронирований у неё ещё нет
+    public void initialize(long itemId) {
+        pointersRepository.save(ItemBookingPointers.empty(itemId));
+    }
+
+    public void initializeAll(Collection<Long> itemIds) {
+        pointersRepository.saveAll(itemIds.stream().map(ItemBookingPointers::empty).toList());
+    }
+
+    // пересчёт и запись в текущей транзакции или, вне её, в своей
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return;
+        Map<Long, ItemBookingPointers> computed = compute(itemIds, LocalDateTime.now());
+
+        List<ItemBookingPointers> toSave = new ArrayList<>();
+        for (ItemBookingPointers existing : pointersRepository.findAllById(itemIds)) {
+            existing.copyFrom(computed.remove(existing.getItemId()));
+        }
+        toSave.addAll(computed.values());
+        pointersRepository.saveAll(toSave);
+    }
+
+    // бронирования пользователя удаляются каскадом вместе с ним — указатели на них пересчитываем
+    public void onBookerDeleted(long userId) {
+        refresh(pointersRepository.findItemIdsByBooker(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.refresh-delay:PT30S}")
+    public void refreshExpired() {
+        int refreshed = 0;
+        List<Long> batch;
+        do {
+            batch = tx.execute(status -> {
+                List<Long> ids = pointersRepository.findExpiredItemIds(LocalDateTime.now(), PageRequest.of(0, BATCH));
+                refresh(ids);
+                return ids;
+            });
+            refreshed += batch.size();
+        } while (batch.size() == BATCH);
+        if (refreshed > 0) log.debug("Пересчитаны указатели last/next для {} вещей", refreshed);
+    }
+
+    // вещи, созданные до появления таблицы, получают строки при старте
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Long> batch;
+        do {
+            batch = tx.execute(status -> {
+                List<Long> ids = pointersRepository.findItemIdsWithoutPointers(PageRequest.of(0, BATCH));
+                refresh(ids);
+                return ids;
+            });
+        } while (batch.size() == BATCH);
+    }
+
+    // сверка живой таблицы с пересчётом с нуля; при rebuild расхождения сразу исправляются
+    public Check check(boolean rebuild) {
+        long items = 0;
+        long mismatched = 0;
+        List<Long> sample = new ArrayList<>();
+
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long from = afterId;
+            List<Long> diverged = new ArrayList<>();
+            ids = tx.execute(status -> {
+                List<Long> page = pointersRepository.findItemIdsAfter(from, PageRequest.of(0, BATCH));
+                Map<Long, ItemBookingPointers> expected = compute(page, LocalDateTime.now());
+                Map<Long, ItemBookingPointers> live = new HashMap<>();
+                pointersRepository.findAllById(page).forEach(p -> live.put(p.getItemId(), p));
+                for (Long id : page) {
+                    if (!expected.get(id).equals(live.get(id))) diverged.add(id);
+                }
+                if (rebuild && !diverged.isEmpty()) refresh(diverged);
+                return page;
+            });
+            if (ids.isEmpty()) break;
+
+            for (Long id : diverged) {
+                if (sample.size() < SAMPLE) sample.add(id);
+            }
+            items += ids.size();
+            mismatched += diverged.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == BATCH);
+
+        if (mismatched > 0) {
+            log.warn("Указатели last/next расходятся с bookings у {} из {} вещей{}", mismatched, items,
+                    rebuild ? " — пересчитаны" : "");
+        }
+        return new Check(items, mismatched, rebuild, sample);
+    }
+
+    private Map<Long, ItemBookingPointers> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointers> result = new HashMap<>();
+        for (Long id : itemIds) {
+            result.put(id, ItemBookingPointers.empty(id));
+        }
+        for (Booking b : bookingRepository.findLastByItemIds(itemIds, now, Status.APPROVED)) {
+            ItemBookingPointers p = result.get(b.getItem().getId());
+            if (p.getLastBookingId() == null) {
+                p.setLastBookingId(b.getId());
+                p.setLastBookerId(b.getBooker().getId());
+            }
+        }
+        for (Booking b : bookingRepository.findNextByItemIds(itemIds, now, Status.APPROVED)) {
+            ItemBookingPointers p = result.get(b.getItem().getId());
+            if (p.getNextBookingId() == null) {
+                p.setNextBookingId(b.getId());
+                p.setNextBookerId(b.getBooker().getId());
+                p.setNextStart(b.getStartTime());
+            }
+        }
+        return result;
+    }
+
+    public record Check(long items, long mismatched, boolean rebuilt, List<Long> sampleItemIds) {
+    }
+}
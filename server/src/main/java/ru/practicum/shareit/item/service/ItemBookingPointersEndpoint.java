@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/bookingpointers — сверка item_booking_pointers с bookings,
+// POST — та же сверка с пересчётом расходящихся строк
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "bookingpointers")
+public class ItemBookingPointersEndpoint {
+    private final ItemBookingPointerService pointerService;
+
+    @ReadOperation
+    public ItemBookingPointerService.Check verify() {
+        return pointerService.check(false);
+    }
+
+    @WriteOperation
+    public ItemBookingPointerService.Check rebuild() {
+        return pointerService.check(true);
+    }
+}
@@ -2,20 +2,26 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto create(Long ownerId, ItemDto dto);
 
+    List<ItemDto> createAll(Long ownerId, List<ItemDto> dtos);
+
     ItemDto update(Long ownerId, Long itemId, ItemDto dto);
 
     ItemDto getById(Long userId, Long itemId); // userId пригодится позже (для бронирований и отзывов)
 
-    List<ItemDto> getAllByOwner(Long ownerId);
+    List<ItemDto> getAllByOwner(Long ownerId, int from, int size);
 
-    List<ItemDto> search(Long userId, String text);
+    List<ItemDto> search(Long userId, String text, int from, int size, boolean ranked);
 
     CommentDto addComment(long userId, long itemId, CommentCreateDto dto);
+
+    List<FreeIntervalDto> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
 }
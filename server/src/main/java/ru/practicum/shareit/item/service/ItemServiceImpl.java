@@ -4,47 +4,65 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingCache;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.paging.OffsetPageRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Duration DEFAULT_AVAILABILITY_WINDOW = Duration.ofDays(30);
+    private static final Duration MAX_AVAILABILITY_WINDOW = Duration.ofDays(366);
+    private static final int MAX_BATCH_ITEMS = 1000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
 
     private final ItemMapper itemMapper;
-    private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository requestRepo;
+    private final ItemSearchEngine searchEngine;
+    private final ItemBookingPointerService pointerService;
+    private final CommentCache commentCache;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final BookingCache bookingCache;
 
     @Transactional
     @Override
     public ItemDto create(Long userId, ItemDto dto) {
-        User user = findUserById(userId);
+        userCache.requireExists(userId);
         validateItemCreate(dto);
 
         if (dto.getRequestId() != null) {
@@ -52,27 +70,42 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException("Запрос вещи не найден"));
         }
 
-        Item item = Item.builder()
-                .userId(user.getId())
-                .name(dto.getName())
-                .description(dto.getDescription())
-                .available(dto.getAvailable())
-                .requestId(dto.getRequestId())
-                .build();
+        Item savedItem = itemRepository.save(toNewItem(userId, dto));
+        searchEngine.onItemSaved(savedItem);
+        pointerService.initialize(savedItem.getId());
+        return toNewItemDto(savedItem);
+    }
 
-        Item savedItem = itemRepository.save(item);
-        ItemDto out = itemMapper.toItemDto(savedItem);
+    // массовая загрузка каталога: id берутся из последовательности пачками по 50,
+    // INSERT'ы вещей и пустых указателей уходят JDBC-батчами
+    @Transactional
+    @Override
+    public List<ItemDto> createAll(Long userId, List<ItemDto> dtos) {
+        userCache.requireExists(userId);
+        if (dtos == null || dtos.isEmpty()) throw new ValidationException("Список вещей пуст");
+        if (dtos.size() > MAX_BATCH_ITEMS) {
+            throw new ValidationException("Не больше " + MAX_BATCH_ITEMS + " вещей за один запрос");
+        }
+        dtos.forEach(this::validateItemCreate);
+
+        Set<Long> requestIds = dtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!requestIds.isEmpty() && requestRepo.findAllById(requestIds).size() != requestIds.size()) {
+            throw new NotFoundException("Запрос вещи не найден");
+        }
 
-        out.setComments(new ArrayList<>());
-        out.setLastBooking(null);
-        out.setNextBooking(null);
-        return out;
+        List<Item> saved = itemRepository.saveAll(dtos.stream().map(dto -> toNewItem(userId, dto)).toList());
+        saved.forEach(searchEngine::onItemSaved);
+        pointerService.initializeAll(saved.stream().map(Item::getId).toList());
+        return saved.stream().map(this::toNewItemDto).toList();
     }
 
     @Transactional
     @Override
     public ItemDto update(Long userId, Long itemId, ItemDto dto) {
-        findUserById(userId);
+        userCache.requireExists(userId);
 
         Item item = findItemById(itemId);
 
@@ -95,42 +128,41 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item saved = itemRepository.save(item);
+        searchEngine.onItemSaved(saved);
+        bookingCache.invalidateItem(itemId);
         return enrich(saved, userId);
     }
 
     @Transactional(readOnly = true)
     @Override
     public ItemDto getById(Long userId, Long itemId) {
-        findUserById(userId);
+        userCache.requireExists(userId);
         Item item = findItemById(itemId);
         return enrich(item, userId);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> getAllByOwner(Long ownerId) {
-        findUserById(ownerId);
-        List<Item> items = itemRepository.findByUserIdOrderByIdAsc(ownerId);
-
-        List<ItemDto> result = new ArrayList<>();
-        for (Item item : items) {
-            result.add(enrich(item, ownerId));
-        }
-
-        return result;
+    public List<ItemDto> getAllByOwner(Long ownerId, int from, int size) {
+        userCache.requireExists(ownerId);
+        List<Item> items = itemRepository.findByUserIdOrderByIdAsc(ownerId, OffsetPageRequest.of(from, size));
+        return enrichAll(items, ownerId);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> search(Long userId, String text) {
-        findUserById(userId);
+    public List<ItemDto> search(Long userId, String text, int from, int size, boolean ranked) {
+        userCache.requireExists(userId);
 
         if (text == null || text.isBlank()) {
             return List.of();
         }
 
-        return itemRepository.searchAvailable(text).stream()
-                .map(itemMapper::toItemDto).toList();
+        // from в обоих режимах — смещение в строках
+        List<Item> found = ranked
+                ? searchEngine.searchRanked(text, from, size)
+                : searchEngine.search(text, from, size);
+        return found.stream().map(itemMapper::toItemDto).toList();
     }
 
     @Transactional
@@ -143,7 +175,6 @@ public class ItemServiceImpl implements ItemService {
                 itemId, userId, Status.APPROVED, LocalDateTime.now()
         );
 
-
         if (!allowed) {
             throw new ValidationException("Пользователь не выполнил утвержденное бронирование");
         }
@@ -155,40 +186,92 @@ public class ItemServiceImpl implements ItemService {
                 .created(LocalDateTime.now())
                 .build();
 
-        return commentMapper.toDto(commentRepository.save(comment));
+        CommentDto saved = commentMapper.toDto(commentRepository.save(comment));
+        commentCache.onCommentAdded(itemId, saved);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<FreeIntervalDto> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        userCache.requireExists(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Нет такой вещи");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from == null ? now : from;
+        LocalDateTime end = to == null ? start.plus(DEFAULT_AVAILABILITY_WINDOW) : to;
+        if (!start.isBefore(end)) {
+            throw new ValidationException("начало периода должно быть раньше конца");
+        }
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_WINDOW) > 0) {
+            throw new ValidationException("период не может быть длиннее " + MAX_AVAILABILITY_WINDOW.toDays() + " дней");
+        }
+
+        // прошлое забронировать уже нельзя — свободным считается только время с текущего момента
+        if (start.isBefore(now)) start = now;
+        if (!start.isBefore(end)) return List.of();
+        return availabilityIndex.freeIntervals(itemId, start, end);
     }
 
     private ItemDto enrich(Item item, long requesterId) {
-        ItemDto dto = itemMapper.toItemDto(item);
+        return enrichAll(List.of(item), requesterId).get(0);
+    }
+
+    // комментарии (из CommentCache) и last/next подгружаются пачкой на весь список вещей,
+    // а не тремя запросами на каждую вещь
+    private List<ItemDto> enrichAll(List<Item> items, long requesterId) {
+        if (items.isEmpty()) return List.of();
+
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
 
-        // comments
-        List<CommentDto> comments = commentRepository.findAllByItemIdOrderByCreatedDesc(item.getId())
-                .stream()
-                .map(commentMapper::toDto)
+        Map<Long, List<CommentDto>> commentsByItem = commentCache.getAll(itemIds);
+
+        // last/next bookings только владельцу, из read-модели item_booking_pointers
+        List<Long> ownItemIds = items.stream()
+                .filter(item -> item.getUserId() == requesterId)
+                .map(Item::getId)
                 .toList();
-        dto.setComments(new ArrayList<>(comments));
-
-        // last/next bookings только владельцу
-        if (item.getUserId() == requesterId) {
-            LocalDateTime now = LocalDateTime.now();
-            BookingDtoShort last = bookingRepository
-                    .findFirstByItemIdAndStartTimeBeforeAndStatusOrderByStartTimeDesc(item.getId(), now, Status.APPROVED)
-                    .map(bookingMapper::toBookingDtoShort)
-                    .orElse(null);
-
-            BookingDtoShort next = bookingRepository
-                    .findFirstByItemIdAndStartTimeAfterAndStatusOrderByStartTimeAsc(item.getId(), now, Status.APPROVED)
-                    .map(bookingMapper::toBookingDtoShort)
-                    .orElse(null);
-
-            dto.setLastBooking(last);
-            dto.setNextBooking(next);
-        } else {
-            dto.setLastBooking(null);
-            dto.setNextBooking(null);
+
+        Map<Long, ItemBookingPointers> pointers = pointerService.load(ownItemIds);
+
+        List<ItemDto> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            ItemDto dto = itemMapper.toItemDto(item);
+            dto.setComments(new ArrayList<>(commentsByItem.getOrDefault(item.getId(), List.of())));
+            ItemBookingPointers p = pointers.get(item.getId());
+            if (p != null) {
+                dto.setLastBooking(toShort(p.getLastBookingId(), p.getLastBookerId()));
+                dto.setNextBooking(toShort(p.getNextBookingId(), p.getNextBookerId()));
+            }
+            result.add(dto);
         }
+        return result;
+    }
+
+    private static Item toNewItem(long userId, ItemDto dto) {
+        return Item.builder()
+                .userId(userId)
+                .name(dto.getName())
+                .description(dto.getDescription())
+                .available(dto.getAvailable())
+                .requestId(dto.getRequestId())
+                .build();
+    }
+
+    // у только что созданной вещи нет ни отзывов, ни бронирований
+    private ItemDto toNewItemDto(Item item) {
+        ItemDto out = itemMapper.toItemDto(item);
+        out.setComments(new ArrayList<>());
+        out.setLastBooking(null);
+        out.setNextBooking(null);
+        return out;
+    }
 
-        return dto;
+    private BookingDtoShort toShort(Long bookingId, Long bookerId) {
+        // в указателях лежат только APPROVED-бронирования
+        return bookingId == null ? null : new BookingDtoShort(bookingId, bookerId, Status.APPROVED);
     }
 
     private User findUserById(Long userId) {
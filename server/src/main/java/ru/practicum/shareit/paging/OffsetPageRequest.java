@@ -0,0 +1,67 @@
+package ru.practicum.shareit.paging;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+// страница, заданная смещением в строках (from из запроса), а не номером: PageRequest умеет только
+// смещения, кратные размеру. Spring Data берёт из Pageable getOffset/getPageSize для LIMIT/OFFSET
+public final class OffsetPageRequest implements Pageable {
+    private final long offset;
+    private final int size;
+
+    private OffsetPageRequest(long offset, int size) {
+        if (offset < 0) throw new IllegalArgumentException("offset must not be negative");
+        if (size < 1) throw new IllegalArgumentException("size must be positive");
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public static OffsetPageRequest of(long offset, int size) {
+        return new OffsetPageRequest(offset, size);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(offset - size, size) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset >= size;
+    }
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Builder
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @SequenceGenerator(name = "item_requests_seq", sequenceName = "item_requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 2000, nullable = false)
@@ -14,7 +14,7 @@ import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -28,13 +28,13 @@ import java.util.Map;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository requestRepo;
-    private final UserRepository userRepo;
+    private final UserExistenceCache userCache;
     private final ItemRepository itemRepo;
 
     @Transactional
     @Override
     public ItemRequestDto create(long userId, ItemRequestCreateDto dto) {
-        userRepo.findById(userId).orElseThrow(() -> new NotFoundException("Нет такого пользователя"));
+        userCache.requireExists(userId);
 
         if (dto == null || dto.getDescription() == null || dto.getDescription().isBlank()) {
             throw new ValidationException("description must not be blank");
@@ -51,7 +51,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getOwn(long userId) {
-        userRepo.findById(userId).orElseThrow(() -> new NotFoundException("Нет такого пользователя"));
+        userCache.requireExists(userId);
 
         List<ItemRequest> requests = requestRepo.findAllByRequestorIdOrderByCreatedDesc(userId);
         return attachItems(requests);
@@ -59,7 +59,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getAllOther(long userId, int from, int size) {
-        userRepo.findById(userId).orElseThrow(() -> new NotFoundException("Нет такого пользователя"));
+        userCache.requireExists(userId);
 
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size);
@@ -70,7 +70,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getById(long userId, long requestId) {
-        userRepo.findById(userId).orElseThrow(() -> new NotFoundException("Нет такого пользователя"));
+        userCache.requireExists(userId);
 
         ItemRequest req = requestRepo.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос не найден"));
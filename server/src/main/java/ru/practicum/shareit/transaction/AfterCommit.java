@@ -0,0 +1,34 @@
+package ru.practicum.shareit.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// побочные эффекты изменений (кэши, индексы в памяти, SSE) применяются только после коммита:
+// откаченная транзакция не должна их оставить. Вне транзакции действие выполняется сразу.
+// Кэши вдобавок держат записи не дольше TTL — на случай, если чтение из БД успело вернуть в кэш
+// старое значение между коммитом и срабатыванием хука
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // сброс кэша сразу и ещё раз после коммита: параллельный запрос, прочитавший из БД
+    // ещё не закоммиченное старое значение, не оставит его в кэше
+    public static void evict(Runnable eviction) {
+        eviction.run();
+        run(eviction);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+// cache-aside для проверки заголовка X-Sharer-User-Id: кэшируются только существующие id.
+// Отрицательный ответ не кэшируется — id выдаёт последовательность, и пропуск в кэше просто уходит в БД.
+// Кэш рассчитан на то, что id не переиспользуются, а пользователи удаляются только через
+// UserServiceImpl.delete (он вызывает invalidate). Строки, удалённые мимо сервиса, остаются
+// «существующими» до TTL — после такой чистки нужен invalidateAll
+@Component
+public class UserExistenceCache implements MeterBinder {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.cache.users.ttl:10m}") Duration ttl,
+                              @Value("${shareit.cache.users.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public void requireExists(long userId) {
+        if (cache.getIfPresent(userId) != null) return;
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Нет такого пользователя");
+        }
+        cache.put(userId, Boolean.TRUE);
+    }
+
+    // существование уже подтверждено другим запросом (например, строками, найденными по этому id)
+    public void remember(long userId) {
+        cache.put(userId, Boolean.TRUE);
+    }
+
+    public void invalidate(long userId) {
+        AfterCommit.evict(() -> cache.invalidate(userId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users.existence");
+    }
+}
@@ -3,8 +3,13 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.CommentCache;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.user.dto.UserDTO;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -18,6 +23,12 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final ItemSearchEngine searchEngine;
+    private final UserExistenceCache userCache;
+    private final ItemBookingPointerService pointerService;
+    private final CommentCache commentCache;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final BookingCache bookingCache;
 
     @Transactional(readOnly = true)
     @Override
@@ -66,13 +77,28 @@ public class UserServiceImpl implements UserService {
             targetUser.setEmail(user.getEmail());
         }
 
+        userCache.invalidate(id);
+        commentCache.invalidateAuthor(id);
+        bookingCache.invalidateUser(id);
         return userMapper.toUserDto(userRepository.save(targetUser));
     }
 
     @Transactional
     @Override
     public void delete(Long id) {
+        // вещи с его отзывами ищутся до удаления: потом отзывы уйдут каскадом
+        commentCache.invalidateAuthor(id);
         userRepository.deleteById(id);
+        // deleteById только ставит удаление в очередь, а каскад по бронированиям делает сама БД:
+        // без flush пересчёт указателей ниже ещё видел бы бронирования удаляемого арендатора
+        userRepository.flush();
+        userCache.invalidate(id);
+        // вещи пользователя удаляются каскадом в БД, in-memory индекс об этом не знает
+        searchEngine.onOwnerDeleted(id);
+        pointerService.onBookerDeleted(id);
+        availabilityIndex.invalidateAll();
+        // его брони и брони его вещей — каскадом в БД; по индексу владельца и арендатора
+        bookingCache.invalidateUser(id);
     }
 
     private void validateCreate(UserDTO dto) {
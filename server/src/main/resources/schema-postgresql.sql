@@ -0,0 +1,26 @@
+-- только для Postgres (профиль prod), выполняется после schema.sql
+
+-- поиск вещей: ilike '%text%' по name/description через триграммный GIN-индекс
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops) WHERE available;
+
+-- переход с IDENTITY на последовательности для баз, созданных до него (CREATE TABLE IF NOT EXISTS
+-- их не трогает): последовательность поднимается выше уже выданных id, а identity у колонки снимается,
+-- и её умолчанием становится та же последовательность. GREATEST не даёт сдвинуть её назад при повторном старте
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users) + 50));
+SELECT setval('items_seq', GREATEST((SELECT last_value FROM items_seq), (SELECT COALESCE(MAX(id), 0) FROM items) + 50));
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 0) FROM bookings) + 50));
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id), 0) FROM comments) + 50));
+SELECT setval('item_requests_seq', GREATEST((SELECT last_value FROM item_requests_seq), (SELECT COALESCE(MAX(id), 0) FROM item_requests) + 50));
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER TABLE item_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE item_requests ALTER COLUMN id SET DEFAULT nextval('item_requests_seq');
@@ -1,5 +1,14 @@
+-- id сущностей выдаются pooled-последовательностями (allocationSize = 50): Hibernate берёт
+-- по одному nextval на 50 строк и может батчить INSERT. Ручная вставка без id берёт nextval из той же
+-- последовательности по умолчанию колонки — счётчик у таблицы один, и Hibernate его значений не выдаст
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users(
-                                    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                    id BIGINT DEFAULT nextval('users_seq') NOT NULL,
                                     name VARCHAR(255) NOT NULL,
                                     email VARCHAR(255) NOT NULL,
                                     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -7,7 +16,7 @@ CREATE TABLE IF NOT EXISTS users(
 );
 
 CREATE TABLE IF NOT EXISTS items(
-                                    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                    id BIGINT DEFAULT nextval('items_seq') NOT NULL,
                                     user_id BIGINT NOT NULL,
                                     name VARCHAR(255) NOT NULL,
                                     description VARCHAR(2000) NOT NULL,
@@ -17,17 +26,18 @@ CREATE TABLE IF NOT EXISTS items(
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                        id BIGINT DEFAULT nextval('bookings_seq') PRIMARY KEY,
                                         item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
                                         booker_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
                                         status VARCHAR(20) NOT NULL,
                                         start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-                                        end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL
+                                        end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+                                        version BIGINT NOT NULL DEFAULT 0
 );
 
 
 CREATE TABLE IF NOT EXISTS comments (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+                                        id BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY NOT NULL,
                                         text VARCHAR(2000) NOT NULL,
                                         item_id BIGINT REFERENCES items (id) ON DELETE CASCADE,
                                         author_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
@@ -35,11 +45,39 @@ CREATE TABLE IF NOT EXISTS comments (
 );
 
 CREATE TABLE IF NOT EXISTS item_requests(
-                                            id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                            id BIGINT DEFAULT nextval('item_requests_seq') PRIMARY KEY,
                                             description VARCHAR(2000) NOT NULL,
                                             requestor_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
                                             created TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
 ALTER TABLE items
-    ADD COLUMN IF NOT EXISTS request_id BIGINT REFERENCES item_requests(id) ON DELETE SET NULL;
\ No newline at end of file
+    ADD COLUMN IF NOT EXISTS request_id BIGINT REFERENCES item_requests(id) ON DELETE SET NULL;
+
+-- счётчик версий для @Version в Booking
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- read-модель last/next APPROVED-бронирований вещи (ItemBookingPointerService)
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+                                        item_id BIGINT PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+                                        last_booking_id BIGINT,
+                                        last_booker_id BIGINT,
+                                        next_booking_id BIGINT,
+                                        next_booker_id BIGINT,
+                                        next_start TIMESTAMP WITHOUT TIME ZONE
+);
+
+-- индексы под запросы BookingRepository / ItemRepository / CommentRepository / ItemRequestRepository
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_time DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_time DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_time);
+-- проверка пересечения интервалов при создании/одобрении бронирования
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_end ON bookings (item_id, start_time, end_time);
+CREATE INDEX IF NOT EXISTS idx_items_user_id ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
+-- вещи, прокомментированные пользователем (CommentCache.invalidateAuthor)
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+CREATE INDEX IF NOT EXISTS idx_item_requests_requestor_created ON item_requests (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_next_start ON item_booking_pointers (next_start);
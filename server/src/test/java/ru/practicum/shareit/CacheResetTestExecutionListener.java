@@ -0,0 +1,18 @@
+package ru.practicum.shareit;
+
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+
+// тесты чистят таблицы репозиториями в обход UserServiceImpl.delete, а UserExistenceCache
+// рассчитан на то, что удаление идёт через сервис. Поэтому перед каждым тестом кэш сбрасывается,
+// чтобы ни один тест не видел пользователей, удалённых предыдущим
+public class CacheResetTestExecutionListener implements TestExecutionListener {
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        if (!testContext.hasApplicationContext()) return;
+        testContext.getApplicationContext().getBeanProvider(UserExistenceCache.class)
+                .ifAvailable(UserExistenceCache::invalidateAll);
+    }
+}
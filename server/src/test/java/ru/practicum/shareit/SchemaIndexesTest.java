@@ -0,0 +1,198 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.paging.OffsetPageRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// без профиля test: схема поднимается из schema.sql, а не из Hibernate ddl-auto
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.SchemaIndexesTest$SqlCapture")
+class SchemaIndexesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    private long userId;
+    private long itemId;
+    private long requestId;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("DELETE FROM comments");
+        jdbc.update("DELETE FROM bookings");
+        jdbc.update("DELETE FROM items");
+        jdbc.update("DELETE FROM item_requests");
+        jdbc.update("DELETE FROM users");
+
+        // id берутся из pooled-последовательностей с шагом 50 и идут не подряд
+        for (int u = 0; u < 50; u++) {
+            jdbc.update("INSERT INTO users (name, email) VALUES (?, ?)", "u" + u, "idx" + u + "@ex.ru");
+        }
+        List<Long> userIds = ids("users");
+        userId = userIds.get(0);
+
+        for (int r = 0; r < 50; r++) {
+            jdbc.update("INSERT INTO item_requests (description, requestor_id, created) VALUES (?, ?, ?)",
+                    "need " + r, userIds.get(r), Timestamp.valueOf(NOW.minusDays(r)));
+        }
+        List<Long> requestIds = ids("item_requests");
+        requestId = requestIds.get(0);
+
+        for (int i = 0; i < 200; i++) {
+            jdbc.update("INSERT INTO items (user_id, name, description, available, request_id) VALUES (?, ?, ?, ?, ?)",
+                    userIds.get(i % 50), "item " + i, "desc " + i, true, i % 4 == 0 ? requestIds.get(i % 50) : null);
+        }
+        List<Long> itemIds = ids("items");
+        itemId = itemIds.get(0);
+
+        for (int b = 0; b < 1000; b++) {
+            LocalDateTime start = NOW.minusDays(500).plusDays(b);
+            jdbc.update("INSERT INTO bookings (item_id, booker_id, status, start_time, end_time) VALUES (?, ?, ?, ?, ?)",
+                    itemIds.get(b % 200), userIds.get(b % 50), b % 3 == 0 ? "WAITING" : "APPROVED",
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(5)));
+        }
+        for (int c = 0; c < 300; c++) {
+            jdbc.update("INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)",
+                    "c" + c, itemIds.get(c % 200), userIds.get(c % 50), Timestamp.valueOf(NOW.minusHours(c)));
+        }
+        jdbc.execute("ANALYZE");
+    }
+
+    // запросы берутся те, что реально шлёт Hibernate (перехват в SqlCapture), а не написанные руками.
+    // Отсутствия tableScan мало: H2 сам индексирует внешние ключи, и без наших индексов план
+    // пошёл бы по CONSTRAINT_INDEX_*. Поэтому проверяется, что план называет нужный составной индекс
+    @Test
+    void hotQueries_areServedByIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingCursor cursor = new BookingCursor(NOW.minusDays(10), Long.MAX_VALUE);
+
+        assertPlanUses(() -> bookingRepository.search(filter(BookingFilter.Party.BOOKER, State.ALL), now, 0, 10),
+                "idx_bookings_booker_status_start");
+        assertPlanUses(() -> bookingRepository.search(filter(BookingFilter.Party.BOOKER, State.WAITING), now, 20, 10),
+                "idx_bookings_booker_status_start");
+        assertPlanUses(() -> bookingRepository.search(filter(BookingFilter.Party.BOOKER, State.PAST), now, cursor, 10),
+                "idx_bookings_booker_status_start");
+        assertPlanUses(() -> bookingRepository.search(filter(BookingFilter.Party.OWNER, State.FUTURE), now, cursor, 10),
+                "idx_bookings_item_start_end");
+        assertPlanUses(() -> bookingRepository.search(new BookingFilter(BookingFilter.Party.OWNER, userId, State.ALL,
+                        NOW.minusDays(30), NOW.plusDays(30)), now, 0, 10),
+                "idx_bookings_item_start_end");
+        assertPlanUses(() -> bookingRepository.existsOverlapping(itemId, NOW, NOW.plusDays(1), Status.APPROVED, 0L),
+                "idx_bookings_item_start_end");
+        assertPlanUses(() -> bookingRepository.findLastByItemIds(List.of(itemId), now, Status.APPROVED),
+                "idx_bookings_item_status_start");
+        assertPlanUses(() -> bookingRepository.findNextByItemIds(List.of(itemId), now, Status.APPROVED),
+                "idx_bookings_item_status_start");
+
+        // у индексов items, comments и item_requests первая колонка — внешний ключ. H2 индексирует её сам,
+        // сортировку по второй колонке в стоимости не учитывает, и при равной цене берёт свой FK-индекс.
+        // Наши нужны Postgres, где FK не индексируется; здесь проверяется только поиск по индексу,
+        // их наличие — в schemaIndexes_exist
+        assertNoTableScan(() -> itemRepository.findByUserIdOrderByIdAsc(userId, OffsetPageRequest.of(3, 10)));
+        assertNoTableScan(() -> itemRepository.findAllByRequestIdIn(List.of(requestId)));
+        assertNoTableScan(() -> commentRepository.findItemIdsByAuthorId(userId));
+        assertNoTableScan(() -> commentRepository.findDtosByItemIdIn(List.of(itemId)));
+        assertNoTableScan(() -> requestRepository.findAllByRequestorIdOrderByCreatedDesc(userId));
+    }
+
+    // у таблицы один счётчик: вставка без id и Hibernate берут значения из одной последовательности
+    @Test
+    void rawInserts_drawIdsFromEntitySequence() {
+        long maxUserId = jdbc.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        long next = jdbc.queryForObject("SELECT nextval('users_seq')", Long.class);
+
+        assertTrue(next > maxUserId, next + " <= " + maxUserId);
+        assertFalse(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE LOWER(table_name) = 'users'"
+                        + " AND LOWER(column_name) = 'id' AND is_identity = 'YES'", Long.class) > 0);
+    }
+
+    @Test
+    void schemaIndexes_exist() {
+        // H2 сам индексирует внешние ключи, Postgres — нет, поэтому проверяем именно наши индексы
+        List<String> indexes = jdbc.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE LOWER(index_name) LIKE 'idx_%'",
+                String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_bookings_booker_start",
+                "idx_bookings_booker_status_start",
+                "idx_bookings_item_status_start",
+                "idx_bookings_item_start_end",
+                "idx_items_user_id",
+                "idx_items_request",
+                "idx_comments_item_created",
+                "idx_comments_author",
+                "idx_item_requests_requestor_created")), indexes.toString());
+    }
+
+    private BookingFilter filter(BookingFilter.Party party, State state) {
+        return new BookingFilter(party, userId, state, null, null);
+    }
+
+    private void assertPlanUses(Runnable call, String... indexes) {
+        List<String> plans = plans(call);
+        for (String index : indexes) {
+            assertTrue(plans.stream().anyMatch(plan -> plan.contains(index)), index + " not used: " + plans);
+        }
+    }
+
+    private void assertNoTableScan(Runnable call) {
+        List<String> plans = plans(call);
+        assertFalse(plans.stream().anyMatch(plan -> plan.contains("tablescan")), plans.toString());
+    }
+
+    // EXPLAIN того же текста, что выполнил Hibernate; параметры H2 оставляет неподставленными
+    private List<String> plans(Runnable call) {
+        SqlCapture.STATEMENTS.clear();
+        call.run();
+        assertFalse(SqlCapture.STATEMENTS.isEmpty());
+        return SqlCapture.STATEMENTS.stream()
+                .map(sql -> jdbc.queryForObject("EXPLAIN " + sql, String.class).toLowerCase())
+                .toList();
+    }
+
+    private List<Long> ids(String table) {
+        return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class);
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
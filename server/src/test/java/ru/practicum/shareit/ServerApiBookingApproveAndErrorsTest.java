@@ -17,11 +17,13 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -49,6 +51,8 @@ class ServerApiBookingApproveAndErrorsTest {
     private ItemRequestRepository requestRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ItemBookingPointerService pointerService;
 
     @BeforeEach
     void cleanDb() {
@@ -156,6 +160,9 @@ class ServerApiBookingApproveAndErrorsTest {
                 .endTime(now.plusDays(3))
                 .build());
 
+        // фикстура пишет бронирования репозиторием — указатели вещи пересчитываются, как после BookingServiceImpl
+        pointerService.refresh(List.of(itemId));
+
         mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.lastBooking.id").exists())
@@ -0,0 +1,177 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiBookingBatchTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private final LocalDateTime base = LocalDateTime.now().withNano(0).plusDays(3);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+    }
+
+    @Test
+    void batch_appliesValidRows_andReportsEachFailure() throws Exception {
+        long itemId = createItem(ownerId);
+        long foreignItemId = createItem(createUser("other"));
+
+        long first = book(itemId, 1, 3);
+        long overlapping = book(itemId, 2, 4);
+        long rejected = book(itemId, 5, 6);
+        long foreign = book(foreignItemId, 1, 2);
+        long decided = book(itemId, 7, 8);
+        mvc.perform(patch("/bookings/{id}", decided).header(USER_HEADER, ownerId).param("approved", "false"))
+                .andExpect(status().isOk());
+
+        JsonNode results = batch(ownerId, List.of(
+                new BookingDecisionDto(first, true),
+                new BookingDecisionDto(overlapping, true),
+                new BookingDecisionDto(rejected, false),
+                new BookingDecisionDto(foreign, true),
+                new BookingDecisionDto(first + 1000, true),
+                new BookingDecisionDto(first, false),
+                new BookingDecisionDto(decided, true)));
+
+        List<Integer> codes = new ArrayList<>();
+        results.forEach(row -> codes.add(row.get("status").asInt()));
+        assertEquals(List.of(200, 409, 200, 403, 404, 400, 400), codes);
+        assertEquals("APPROVED", results.get(0).get("booking").get("status").asText());
+        assertEquals(overlapping, results.get(1).get("bookingId").asLong());
+
+        assertEquals(Status.APPROVED, statusOf(first));
+        assertEquals(Status.WAITING, statusOf(overlapping));
+        assertEquals(Status.REJECTED, statusOf(rejected));
+        assertEquals(Status.WAITING, statusOf(foreign));
+    }
+
+    @Test
+    void batch_statementCount_doesNotGrowWithRows() throws Exception {
+        long small = createItem(ownerId);
+        long large = createItem(ownerId);
+        List<BookingDecisionDto> two = new ArrayList<>();
+        List<BookingDecisionDto> ten = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            if (i < 2) two.add(new BookingDecisionDto(book(small, i * 2, i * 2 + 1), true));
+            ten.add(new BookingDecisionDto(book(large, i * 2, i * 2 + 1), i % 3 != 0));
+        }
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        batch(ownerId, two);
+        long forTwo = stats.getPrepareStatementCount();
+
+        stats.clear();
+        batch(ownerId, ten);
+        assertEquals(forTwo, stats.getPrepareStatementCount());
+    }
+
+    private JsonNode batch(long userId, List<BookingDecisionDto> decisions) throws Exception {
+        String body = mvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private Status statusOf(long bookingId) {
+        return bookingRepository.findById(bookingId).orElseThrow().getStatus();
+    }
+
+    private long book(long itemId, int fromHour, int toHour) throws Exception {
+        return readId(mvc.perform(post("/bookings")
+                .header(USER_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "itemId", itemId,
+                        "start", base.plusHours(fromHour).toString(),
+                        "end", base.plusHours(toHour).toString())))));
+    }
+
+    private long createItem(long userId) throws Exception {
+        return readId(mvc.perform(post("/items")
+                .header(USER_HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Drill", "description", "Nice", "available", true)))));
+    }
+
+    private long createUser(String name) throws Exception {
+        return readId(mvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", name, "email", name + System.nanoTime() + "@ex.ru")))));
+    }
+
+    private long readId(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiBookingCacheTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void polling_servedFromCache_untilOwnerDecides() throws Exception {
+        long ownerId = createUser("owner");
+        long bookerId = createUser("booker");
+        long strangerId = createUser("stranger");
+        long itemId = readId(mvc.perform(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Drill", "description", "Nice", "available", true)))));
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1);
+        long bookingId = readId(mvc.perform(post("/bookings")
+                .header(USER_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "itemId", itemId, "start", start.toString(), "end", start.plusDays(1).toString())))));
+
+        mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, bookerId))
+                .andExpect(jsonPath("$.status").value("WAITING"));
+
+        // повторные опросы — ни одного select'а: ни брони, ни проверки доступа
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, bookerId))
+                    .andExpect(status().isOk());
+        }
+        mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, ownerId))
+                .andExpect(status().isOk());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, strangerId))
+                .andExpect(status().isNotFound());
+
+        mvc.perform(patch("/bookings/{id}", bookingId).header(USER_HEADER, ownerId).param("approved", "true"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, bookerId))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+        mvc.perform(patch("/items/{id}", itemId)
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "Hammer drill"))))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, bookerId))
+                .andExpect(jsonPath("$.item.name").value("Hammer drill"));
+
+        mvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:bookings.by-id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[*].values[*]", hasItem("hit")));
+    }
+
+    @Test
+    void itemOrUserChange_evictsOnlyTheirBookings() throws Exception {
+        long ownerId = createUser("owner");
+        long drillBookerId = createUser("drillBooker");
+        long sawBookerId = createUser("sawBooker");
+        long drillId = createItem(ownerId, "Drill");
+        long sawId = createItem(createUser("sawOwner"), "Saw");
+        long drillBookingId = createBooking(drillBookerId, drillId);
+        long sawBookingId = createBooking(sawBookerId, sawId);
+        mvc.perform(get("/bookings/{id}", drillBookingId).header(USER_HEADER, drillBookerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/{id}", sawBookingId).header(USER_HEADER, sawBookerId))
+                .andExpect(status().isOk());
+
+        mvc.perform(patch("/items/{id}", drillId)
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "Hammer drill"))))
+                .andExpect(status().isOk());
+        mvc.perform(patch("/users/{id}", drillBookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "renamed"))))
+                .andExpect(status().isOk());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/bookings/{id}", sawBookingId).header(USER_HEADER, sawBookerId))
+                .andExpect(status().isOk());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        mvc.perform(get("/bookings/{id}", drillBookingId).header(USER_HEADER, drillBookerId))
+                .andExpect(jsonPath("$.item.name").value("Hammer drill"))
+                .andExpect(jsonPath("$.booker.name").value("renamed"));
+    }
+
+    private long createItem(long ownerId, String name) throws Exception {
+        return readId(mvc.perform(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", name, "description", "Nice", "available", true)))));
+    }
+
+    private long createBooking(long bookerId, long itemId) throws Exception {
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1);
+        return readId(mvc.perform(post("/bookings")
+                .header(USER_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "itemId", itemId, "start", start.toString(), "end", start.plusDays(1).toString())))));
+    }
+
+    private long createUser(String name) throws Exception {
+        return readId(mvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", name, "email", name + System.nanoTime() + "@ex.ru")))));
+    }
+
+    private long readId(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
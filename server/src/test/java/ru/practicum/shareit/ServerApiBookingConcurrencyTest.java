@@ -0,0 +1,176 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDTO;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiBookingConcurrencyTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+    private long itemId;
+    private final LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(10);
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = createUser("owner");
+        ItemDto item = new ItemDto();
+        item.setName("Drill");
+        item.setDescription("Nice");
+        item.setAvailable(true);
+        itemId = itemService.create(ownerId, item).getId();
+    }
+
+    @Test
+    void concurrentApprovals_ofOverlappingBookings_approveExactlyOne() throws Exception {
+        // заявки сдвинуты на час: каждая пересекается со всеми остальными
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            long bookerId = createUser("booker" + i);
+            bookingIds.add(bookingService.addBooking(bookerId,
+                    new BookingInputDto(itemId, start.plusHours(i), start.plusHours(i).plusDays(1))).getId());
+        }
+
+        List<Boolean> outcomes = runConcurrently(bookingIds.stream()
+                .<Callable<Boolean>>map(id -> () -> approve(id))
+                .toList());
+
+        assertEquals(1, outcomes.stream().filter(ok -> ok).count(), outcomes.toString());
+        assertEquals(1, bookingRepository.findAll().stream().filter(b -> b.getStatus() == Status.APPROVED).count());
+
+        // новая заявка на занятое время отклоняется сразу; окно пересекается с любой из заявок,
+        // так что результат не зависит от того, какая из них выиграла гонку
+        mvc.perform(post("/bookings")
+                        .header(USER_HEADER, createUser("late"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "itemId", itemId,
+                                "start", start.plusHours(THREADS - 1).toString(),
+                                "end", start.plusDays(1).toString()))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void concurrentApprovals_ofSameBooking_succeedOnce() throws Exception {
+        long bookingId = bookingService.addBooking(createUser("booker"),
+                new BookingInputDto(itemId, start, start.plusDays(1))).getId();
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> approve(bookingId));
+        }
+        List<Boolean> outcomes = runConcurrently(tasks);
+
+        assertEquals(1, outcomes.stream().filter(ok -> ok).count(), outcomes.toString());
+        assertEquals(Status.APPROVED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
+    private boolean approve(long bookingId) {
+        try {
+            bookingService.approveOrRejectBooking(ownerId, bookingId, true);
+            return true;
+        } catch (ConflictException | ConcurrencyFailureException | ValidationException e) {
+            return false;
+        }
+    }
+
+    private List<Boolean> runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch gate = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    gate.await();
+                    return task.call();
+                }));
+            }
+            gate.countDown();
+            List<Boolean> outcomes = new ArrayList<>();
+            for (Future<Boolean> f : futures) {
+                outcomes.add(f.get(30, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private long createUser(String name) {
+        UserDTO dto = new UserDTO();
+        dto.setName(name);
+        dto.setEmail(name + System.nanoTime() + "@ex.ru");
+        return userService.add(dto).getId();
+    }
+}
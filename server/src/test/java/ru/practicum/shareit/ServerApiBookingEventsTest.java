@@ -0,0 +1,126 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiBookingEventsTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private long bookingId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+        long itemId = readId(mvc.perform(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Drill", "description", "Nice", "available", true)))));
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1);
+        bookingId = readId(mvc.perform(post("/bookings")
+                .header(USER_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "itemId", itemId, "start", start.toString(), "end", start.plusDays(1).toString())))));
+    }
+
+    @Test
+    void events_pushCurrentStatus_thenOwnerDecision() throws Exception {
+        MvcResult stream = mvc.perform(get("/bookings/{id}/events", bookingId).header(USER_HEADER, bookerId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String beforeDecision = stream.getResponse().getContentAsString();
+        assertTrue(beforeDecision.startsWith("event:status\ndata:"), beforeDecision);
+        assertTrue(beforeDecision.contains("\"status\":\"WAITING\""), beforeDecision);
+        assertFalse(beforeDecision.contains("APPROVED"), beforeDecision);
+
+        mvc.perform(patch("/bookings/{id}", bookingId).header(USER_HEADER, ownerId).param("approved", "true"))
+                .andExpect(status().isOk());
+
+        assertTrue(stream.getResponse().getContentAsString().contains("\"status\":\"APPROVED\""),
+                stream.getResponse().getContentAsString());
+        // решённая заявка: текущий статус и сразу конец потока
+        MvcResult decided = mvc.perform(get("/bookings/{id}/events", bookingId).header(USER_HEADER, ownerId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(decided))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"status\":\"APPROVED\"")));
+    }
+
+    @Test
+    void events_strangerGets404() throws Exception {
+        long strangerId = createUser("stranger");
+        mvc.perform(get("/bookings/{id}/events", bookingId).header(USER_HEADER, strangerId))
+                .andExpect(status().isNotFound());
+    }
+
+    private long createUser(String name) throws Exception {
+        return readId(mvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", name, "email", name + System.nanoTime() + "@ex.ru")))));
+    }
+
+    private long readId(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
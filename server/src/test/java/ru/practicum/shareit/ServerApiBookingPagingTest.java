@@ -0,0 +1,230 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiBookingPagingTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private final List<Long> bookingIds = new ArrayList<>(); // по убыванию start
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = createUser("Owner", uniq("own"));
+        bookerId = createUser("Booker", uniq("bok"));
+        long itemId = createItem(ownerId);
+
+        User booker = userRepository.findById(bookerId).orElseThrow();
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        LocalDateTime base = LocalDateTime.now().withNano(0).plusDays(30);
+
+        bookingIds.clear();
+        for (int i = 0; i < 7; i++) {
+            Booking saved = bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .startTime(base.minusDays(i))
+                    .endTime(base.minusDays(i).plusHours(1))
+                    .build());
+            bookingIds.add(saved.getId());
+        }
+    }
+
+    @Test
+    void bookerAndOwnerLists_arePaged() throws Exception {
+        mvc.perform(get("/bookings").header(USER_HEADER, bookerId)
+                        .param("state", "ALL")
+                        .param("from", "3")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(bookingIds.get(3)))
+                .andExpect(jsonPath("$[2].id").value(bookingIds.get(5)));
+
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId)
+                        .param("state", "WAITING")
+                        .param("from", "6")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(bookingIds.get(6)));
+
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId)
+                        .param("state", "FUTURE")
+                        .param("from", "10")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    // from — смещение в строках, а не номер страницы: 5 не кратно 3
+    @Test
+    void from_isRowOffset_notPageNumber() throws Exception {
+        mvc.perform(get("/bookings").header(USER_HEADER, bookerId)
+                        .param("from", "5")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(bookingIds.get(5)))
+                .andExpect(jsonPath("$[1].id").value(bookingIds.get(6)));
+
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId)
+                        .param("from", "1")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(bookingIds.get(1)))
+                .andExpect(jsonPath("$[2].id").value(bookingIds.get(3)));
+    }
+
+    @Test
+    void cursorMode_walksWholeHistoryViaNextCursor() throws Exception {
+        assertEquals(bookingIds, walk("/bookings", bookerId));
+        assertEquals(bookingIds, walk("/bookings/owner", ownerId));
+    }
+
+    @Test
+    void cursorMode_filtersByState_andRejectsGarbage() throws Exception {
+        String afterSecond = new BookingCursor(
+                bookingRepository.findById(bookingIds.get(1)).orElseThrow().getStartTime(),
+                bookingIds.get(1)).encode();
+
+        mvc.perform(get("/bookings").header(USER_HEADER, bookerId)
+                        .param("state", "FUTURE")
+                        .param("size", "2")
+                        .param("after", afterSecond))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(bookingIds.get(2)))
+                .andExpect(jsonPath("$[1].id").value(bookingIds.get(3)))
+                .andExpect(header().exists(NEXT_CURSOR));
+
+        mvc.perform(get("/bookings").header(USER_HEADER, bookerId)
+                        .param("state", "REJECTED")
+                        .param("after", afterSecond))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(NEXT_CURSOR));
+
+        mvc.perform(get("/bookings").header(USER_HEADER, bookerId)
+                        .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -------- helpers --------
+
+    // первая страница — обычный offset, дальше идём по X-Next-Cursor того же эндпоинта
+    private List<Long> walk(String path, long userId) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        MvcResult res = mvc.perform(get(path).header(USER_HEADER, userId)
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(NEXT_CURSOR))
+                .andReturn();
+        while (true) {
+            for (JsonNode node : objectMapper.readTree(res.getResponse().getContentAsString())) {
+                seen.add(node.get("id").asLong());
+            }
+            String cursor = res.getResponse().getHeader(NEXT_CURSOR);
+            if (cursor == null) break;
+            res = mvc.perform(get(path).header(USER_HEADER, userId)
+                            .param("size", "3")
+                            .param("after", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        }
+        return seen;
+    }
+
+    private String uniq(String prefix) {
+        return prefix + System.nanoTime() + "@ex.ru";
+    }
+
+    private long createUser(String name, String email) throws Exception {
+        MvcResult res = mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", name, "email", email))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return readId(res);
+    }
+
+    private long createItem(long ownerId) throws Exception {
+        MvcResult res = mvc.perform(post("/items")
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", "Drill",
+                                "description", "Nice",
+                                "available", true
+                        ))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return readId(res);
+    }
+
+    private long readId(MvcResult res) throws Exception {
+        JsonNode node = objectMapper.readTree(res.getResponse().getContentAsString());
+        return node.get("id").asLong();
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiBookingQueryCountTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(User.builder().name("Owner").email("own" + System.nanoTime() + "@ex.ru").build());
+        booker = userRepository.save(User.builder().name("Booker").email("bok" + System.nanoTime() + "@ex.ru").build());
+    }
+
+    @Test
+    void bookingLists_costTheSameNumberOfStatements_regardlessOfSize() throws Exception {
+        seedBookings(1);
+        // кэш пользователей пуст (сбрасывается перед каждым тестом): непустой список не требует
+        // отдельной проверки существования
+        long single = countStatements(get("/bookings").header(USER_HEADER, booker.getId())
+                .param("size", "20"), 1);
+
+        seedBookings(7);
+        long many = countStatements(get("/bookings").header(USER_HEADER, booker.getId())
+                .param("size", "20"), 8);
+        long owners = countStatements(get("/bookings/owner").header(USER_HEADER, owner.getId())
+                .param("size", "20"), 8);
+        String farFuture = new BookingCursor(LocalDateTime.now().plusYears(100), Long.MAX_VALUE).encode();
+        long seek = countStatements(get("/bookings/owner").header(USER_HEADER, owner.getId())
+                .param("state", "FUTURE")
+                .param("size", "20")
+                .param("after", farFuture), 8);
+
+        // ровно один select со списком, item и booker приходят join'ом
+        assertEquals(1, single);
+        assertEquals(single, many);
+        assertEquals(single, owners);
+        assertEquals(single, seek);
+    }
+
+    // любое сочетание state × диапазон × сторона — один и тот же HQL на сторону: после прогрева ни одного промаха
+    @Test
+    void bookingLists_everyStateAndRange_reuseCachedQueryPlans() throws Exception {
+        seedBookings(3);
+        LocalDateTime base = LocalDateTime.now().withNano(0).plusDays(1);
+        mvc.perform(get("/bookings").header(USER_HEADER, booker.getId())).andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, owner.getId())).andExpect(status().isOk());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        int requests = 0;
+        for (String path : new String[]{"/bookings", "/bookings/owner"}) {
+            long userId = path.endsWith("owner") ? owner.getId() : booker.getId();
+            for (State state : State.values()) {
+                mvc.perform(get(path).header(USER_HEADER, userId).param("state", state.name()))
+                        .andExpect(status().isOk());
+                mvc.perform(get(path).header(USER_HEADER, userId).param("state", state.name())
+                                .param("start", base.plusMinutes(90).toString())
+                                .param("end", base.plusHours(3).toString()))
+                        .andExpect(status().isOk());
+                requests += 2;
+            }
+        }
+        assertEquals(0, stats.getQueryPlanCacheMissCount());
+        assertTrue(stats.getQueryPlanCacheHitCount() >= requests, String.valueOf(stats.getQueryPlanCacheHitCount()));
+
+        // бронирования [base, base+1h), [base+1h, base+2h), [base+2h, base+3h): с [base+1:30, base+3h) пересекаются две
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, owner.getId())
+                        .param("state", "FUTURE")
+                        .param("start", base.plusMinutes(90).toString())
+                        .param("end", base.plusHours(3).toString()))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request, int expectedSize) throws Exception {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expectedSize)));
+
+        assertEquals(0, stats.getEntityFetchCount(), "lazy fetches");
+        return stats.getPrepareStatementCount();
+    }
+
+    private void seedBookings(int count) {
+        LocalDateTime base = LocalDateTime.now().withNano(0).plusDays(1);
+        for (int i = 0; i < count; i++) {
+            // у каждого бронирования своя вещь, чтобы лишние select'ы по item были видны
+            Item item = itemRepository.save(Item.builder()
+                    .userId(owner.getId())
+                    .name("Item " + i)
+                    .description("Desc")
+                    .available(true)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .startTime(base.plusHours(i))
+                    .endTime(base.plusHours(i + 1))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiCommentCacheTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = createUser("Owner");
+        bookerId = createUser("Booker");
+        itemId = readId(mvc.perform(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Drill", "description", "Nice", "available", true)))));
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        bookingRepository.save(Booking.builder()
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .status(Status.APPROVED)
+                .startTime(now.minusDays(3))
+                .endTime(now.minusDays(2))
+                .build());
+    }
+
+    @Test
+    void comments_areServedFromCache_andWrittenThrough() throws Exception {
+        comment("first");
+
+        // промах кэша: комментарии читаются проекцией, без сущностей Comment и User
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, bookerId))
+                .andExpect(jsonPath("$.comments", hasSize(1)))
+                .andExpect(jsonPath("$.comments[0].authorName").value("Booker"));
+        assertEquals(0, stats.getEntityStatistics(Comment.class.getName()).getLoadCount());
+        assertEquals(0, stats.getEntityStatistics(User.class.getName()).getLoadCount());
+
+        comment("second");
+
+        stats.clear();
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(2)))
+                .andExpect(jsonPath("$.comments[0].text").value("second"))
+                .andExpect(jsonPath("$.comments[1].text").value("first"));
+        assertFalse(Arrays.stream(stats.getQueries()).anyMatch(q -> q.contains("Comment c")),
+                Arrays.toString(stats.getQueries()));
+
+        // имя автора в кэше обновляется после patch пользователя
+        mvc.perform(patch("/users/{id}", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "Renamed"))))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, bookerId))
+                .andExpect(jsonPath("$.comments[0].authorName").value("Renamed"));
+    }
+
+    @Test
+    void authorPatch_evictsOnlyItemsTheAuthorCommented() throws Exception {
+        long otherItemId = readId(mvc.perform(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Saw", "description", "Sharp", "available", true)))));
+        comment("first");
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, bookerId)).andExpect(status().isOk());
+        mvc.perform(get("/items/{id}", otherItemId).header(USER_HEADER, bookerId)).andExpect(status().isOk());
+
+        mvc.perform(patch("/users/{id}", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "Renamed"))))
+                .andExpect(status().isOk());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/items/{id}", otherItemId).header(USER_HEADER, bookerId))
+                .andExpect(jsonPath("$.comments", hasSize(0)));
+        assertFalse(Arrays.stream(stats.getQueries()).anyMatch(q -> q.contains("Comment c")),
+                Arrays.toString(stats.getQueries()));
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, bookerId))
+                .andExpect(jsonPath("$.comments[0].authorName").value("Renamed"));
+    }
+
+    private void comment(String text) throws Exception {
+        mvc.perform(post("/items/{id}/comment", itemId)
+                        .header(USER_HEADER, bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("text", text))))
+                .andExpect(status().isOk());
+    }
+
+    private long createUser(String name) throws Exception {
+        return readId(mvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", name, "email", name.toLowerCase() + System.nanoTime() + "@ex.ru")))));
+    }
+
+    private long readId(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
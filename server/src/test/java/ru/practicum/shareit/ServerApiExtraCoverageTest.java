@@ -17,11 +17,13 @@ import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -52,6 +54,8 @@ class ServerApiExtraCoverageTest {
     private ItemRequestRepository requestRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ItemBookingPointerService pointerService;
 
     @BeforeEach
     void cleanDb() {
@@ -111,6 +115,9 @@ class ServerApiExtraCoverageTest {
                 .endTime(now.plusDays(3))
                 .build());
 
+        // фикстура пишет бронирования репозиторием — указатели вещи пересчитываются, как после BookingServiceImpl
+        pointerService.refresh(List.of(itemId));
+
         mvc.perform(get("/items/{id}", itemId)
                         .header(USER_HEADER, ownerId))
                 .andExpect(status().isOk())
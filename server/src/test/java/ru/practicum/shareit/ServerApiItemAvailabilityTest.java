@@ -0,0 +1,177 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiItemAvailabilityTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+        // другие тестовые контексты пересоздают схему в общей H2, и id вещи может повториться
+        availabilityIndex.invalidateAll();
+
+        ownerId = createUser("Owner");
+        bookerId = createUser("Booker");
+        itemId = readId(mvc.perform(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Drill", "description", "Nice", "available", true)))));
+        base = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void availability_isComplementOfWaitingAndApproved_andFollowsDecisions() throws Exception {
+        long first = book(1, 3);
+        book(2, 5);
+        long late = book(8, 9);
+
+        assertEquals(List.of(free(0, 1), free(5, 8), free(9, 10)), availability(0, 10));
+
+        // новая заявка и отказ сбрасывают дерево вещи: следующее чтение перестраивает его одним запросом,
+        // а дальше календарь отдаётся из памяти
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        book(6, 7);
+        decide(late, false);
+        decide(first, true);
+        stats.clear();
+        assertEquals(List.of(free(0, 1), free(5, 6), free(7, 10)), availability(0, 10));
+        assertEquals(1, intervalQueries(stats));
+
+        stats.clear();
+        assertEquals(List.of(), availability(2, 5));
+        assertEquals(List.of(free(7, 8)), availability(6, 8));
+        assertEquals(0, intervalQueries(stats));
+    }
+
+    @Test
+    void availability_rejectsBadRangeAndUnknownItem() throws Exception {
+        mvc.perform(get("/items/{id}/availability", itemId)
+                        .header(USER_HEADER, bookerId)
+                        .param("from", base.plusHours(2).toString())
+                        .param("to", base.plusHours(1).toString()))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(get("/items/{id}/availability", itemId + 1000)
+                        .header(USER_HEADER, bookerId))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<FreeIntervalDto> availability(int fromHour, int toHour) throws Exception {
+        String body = mvc.perform(get("/items/{id}/availability", itemId)
+                        .header(USER_HEADER, bookerId)
+                        .param("from", base.plusHours(fromHour).toString())
+                        .param("to", base.plusHours(toHour).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return List.of(objectMapper.readValue(body, FreeIntervalDto[].class));
+    }
+
+    private static long intervalQueries(Statistics stats) {
+        return Arrays.stream(stats.getQueries())
+                .filter(q -> q.contains("BookingIntervalDto"))
+                .mapToLong(q -> stats.getQueryStatistics(q).getExecutionCount())
+                .sum();
+    }
+
+    private FreeIntervalDto free(int fromHour, int toHour) {
+        return new FreeIntervalDto(base.plusHours(fromHour), base.plusHours(toHour));
+    }
+
+    private long book(int fromHour, int toHour) throws Exception {
+        return readId(mvc.perform(post("/bookings")
+                .header(USER_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "itemId", itemId,
+                        "start", base.plusHours(fromHour).toString(),
+                        "end", base.plusHours(toHour).toString())))));
+    }
+
+    private void decide(long bookingId, boolean approved) throws Exception {
+        mvc.perform(patch("/bookings/{id}", bookingId)
+                        .header(USER_HEADER, ownerId)
+                        .param("approved", String.valueOf(approved)))
+                .andExpect(status().isOk());
+    }
+
+    private long createUser(String name) throws Exception {
+        return readId(mvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", name, "email", name.toLowerCase() + System.nanoTime() + "@ex.ru")))));
+    }
+
+    private long readId(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiItemBatchTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ROWS = 500;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = userRepository.save(User.builder().name("Owner").email("b" + System.nanoTime() + "@ex.ru").build())
+                .getId();
+    }
+
+    @Test
+    void batch_createsAllItemsInOrder_orNoneOnUnknownRequest() throws Exception {
+        String body = mvc.perform(post("/items/batch")
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(item("Drill"), item("Saw"), item("Ladder")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Drill"))
+                .andExpect(jsonPath("$[2].name").value("Ladder"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode node : objectMapper.readTree(body)) {
+            ids.add(node.get("id").asLong());
+        }
+        mvc.perform(get("/items").header(USER_HEADER, ownerId))
+                .andExpect(jsonPath("$[*].id").value(contains(
+                        ids.stream().map(Long::intValue).toArray())));
+
+        Map<String, Object> withUnknownRequest = Map.of(
+                "name", "Tent", "description", "d", "available", true, "requestId", 999_999);
+        mvc.perform(post("/items/batch")
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(item("Rope"), withUnknownRequest))))
+                .andExpect(status().isNotFound());
+        assertEquals(3, itemRepository.count());
+    }
+
+    // сравнение с прежним путём импорта (по одной вещи на транзакцию): число statement'ов
+    // проверяется, rows/sec только пишется в лог — на H2 в памяти выигрыш от батчей меньше, чем на Postgres
+    @Test
+    void batchInsert_benchmark_againstRowByRow() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<ItemDto> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(itemDto("item " + i));
+        }
+
+        stats.clear();
+        long started = System.nanoTime();
+        rows.forEach(row -> itemService.create(ownerId, row));
+        double rowByRowSeconds = (System.nanoTime() - started) / 1e9;
+        long rowByRowStatements = stats.getPrepareStatementCount();
+
+        stats.clear();
+        started = System.nanoTime();
+        itemService.createAll(ownerId, rows);
+        double batchSeconds = (System.nanoTime() - started) / 1e9;
+        long batchStatements = stats.getPrepareStatementCount();
+
+        log.info("Вставка {} вещей: по одной — {} rows/sec, {} statements; пакетом — {} rows/sec, {} statements",
+                ROWS, Math.round(ROWS / rowByRowSeconds), rowByRowStatements,
+                Math.round(ROWS / batchSeconds), batchStatements);
+
+        assertEquals(2L * ROWS, itemRepository.count());
+        assertTrue(batchStatements * 10 < rowByRowStatements, batchStatements + " vs " + rowByRowStatements);
+        // вещи и указатели — батчами по 50, id — одним nextval на 50 строк
+        assertTrue(batchStatements <= 3 * ROWS / 50 + 5, String.valueOf(batchStatements));
+    }
+
+    private Map<String, Object> item(String name) {
+        return Map.of("name", name, "description", "d", "available", true);
+    }
+
+    private ItemDto itemDto(String name) {
+        ItemDto dto = new ItemDto();
+        dto.setName(name);
+        dto.setDescription("d");
+        dto.setAvailable(true);
+        return dto;
+    }
+}
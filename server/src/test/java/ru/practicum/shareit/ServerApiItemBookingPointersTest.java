@@ -0,0 +1,208 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "shareit.booking-pointers.refresh-delay=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiItemBookingPointersTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ItemBookingPointerService pointerService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        pointersRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = createUser("Owner");
+        bookerId = createUser("Booker");
+        itemId = readId(mvc.perform(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Drill", "description", "Nice", "available", true)))));
+    }
+
+    @Test
+    void approvedBooking_isServedFromPointers_withoutBookingQueries() throws Exception {
+        long bookingId = book(LocalDateTime.now().plusDays(1));
+        mvc.perform(patch("/bookings/{id}", bookingId).header(USER_HEADER, ownerId).param("approved", "true"))
+                .andExpect(status().isOk());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextBooking.id").value(bookingId))
+                .andExpect(jsonPath("$.nextBooking.bookerId").value(bookerId))
+                .andExpect(jsonPath("$.lastBooking").doesNotExist());
+
+        assertFalse(Arrays.stream(stats.getQueries()).anyMatch(q -> q.contains("Booking b")),
+                Arrays.toString(stats.getQueries()));
+    }
+
+    @Test
+    void nextBooking_becomesLast_onceItStarts() throws Exception {
+        long bookingId = book(LocalDateTime.now().plusDays(1));
+        mvc.perform(patch("/bookings/{id}", bookingId).header(USER_HEADER, ownerId).param("approved", "true"))
+                .andExpect(status().isOk());
+
+        // «прошло время»: бронирование уже началось, а строка указателей ещё старая
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        booking.setStartTime(LocalDateTime.now().minusHours(2));
+        booking.setEndTime(LocalDateTime.now().minusHours(1));
+        bookingRepository.save(booking);
+        ItemBookingPointers row = pointersRepository.findById(itemId).orElseThrow();
+        row.setNextStart(booking.getStartTime());
+        pointersRepository.save(row);
+
+        // до прохода планировщика устаревшая строка пересчитывается на лету
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(jsonPath("$.lastBooking.id").value(bookingId))
+                .andExpect(jsonPath("$.nextBooking").doesNotExist());
+
+        pointerService.refreshExpired();
+        row = pointersRepository.findById(itemId).orElseThrow();
+        assertEquals(bookingId, row.getLastBookingId());
+        assertEquals(null, row.getNextBookingId());
+    }
+
+    @Test
+    void deletingNextBooker_movesNextToTheFollowingBooking() throws Exception {
+        long firstBookerId = bookerId;
+        long first = book(LocalDateTime.now().plusDays(1));
+        bookerId = createUser("Second");
+        long second = book(LocalDateTime.now().plusDays(5));
+        for (long bookingId : new long[]{first, second}) {
+            mvc.perform(patch("/bookings/{id}", bookingId).header(USER_HEADER, ownerId).param("approved", "true"))
+                    .andExpect(status().isOk());
+        }
+        assertEquals(first, pointersRepository.findById(itemId).orElseThrow().getNextBookingId());
+
+        mvc.perform(delete("/users/{id}", firstBookerId)).andExpect(status().isOk());
+
+        ItemBookingPointers row = pointersRepository.findById(itemId).orElseThrow();
+        assertEquals(second, row.getNextBookingId());
+        assertEquals(bookerId, row.getNextBookerId());
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(jsonPath("$.nextBooking.id").value(second));
+    }
+
+    @Test
+    void checker_reportsAndRebuildsDivergedRows() throws Exception {
+        // бронирование, записанное в обход сервиса, указатели не обновляет
+        bookingRepository.save(Booking.builder()
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .status(Status.APPROVED)
+                .startTime(LocalDateTime.now().minusDays(2))
+                .endTime(LocalDateTime.now().minusDays(1))
+                .build());
+
+        mvc.perform(get("/actuator/bookingpointers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").value(1))
+                .andExpect(jsonPath("$.mismatched").value(1))
+                .andExpect(jsonPath("$.sampleItemIds[0]").value(itemId));
+
+        mvc.perform(post("/actuator/bookingpointers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rebuilt").value(true));
+
+        mvc.perform(get("/actuator/bookingpointers"))
+                .andExpect(jsonPath("$.mismatched").value(0));
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(jsonPath("$.lastBooking.bookerId").value(bookerId));
+    }
+
+    private long book(LocalDateTime start) throws Exception {
+        return readId(mvc.perform(post("/bookings")
+                .header(USER_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "itemId", itemId,
+                        "start", start.withNano(0).toString(),
+                        "end", start.plusHours(3).withNano(0).toString())))));
+    }
+
+    private long createUser(String name) throws Exception {
+        return readId(mvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", name, "email", name.toLowerCase() + System.nanoTime() + "@ex.ru")))));
+    }
+
+    private long readId(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -0,0 +1,267 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.MemoryItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// одинаковая семантика поиска для всех реализаций ItemSearchEngine
+class ServerApiItemSearchTest {
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+            properties = "shareit.search.engine=database")
+    @AutoConfigureMockMvc
+    @ActiveProfiles("test")
+    class Database extends SearchContract {
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+            properties = "shareit.search.engine=trigram")
+    @AutoConfigureMockMvc
+    @ActiveProfiles("test")
+    class Trigram extends SearchContract {
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+            properties = "shareit.search.engine=memory")
+    @AutoConfigureMockMvc
+    @ActiveProfiles("test")
+    class Memory extends SearchContract {
+        @Autowired
+        private MemoryItemSearchEngine engine;
+
+        @BeforeEach
+        void rebuild() {
+            // вещи контракта сохранены репозиторием в обход сервиса
+            engine.build();
+        }
+
+        @Test
+        void index_followsCreateUpdateAndOwnerDelete() throws Exception {
+            long ownerId = createUser();
+            long itemId = createItem(ownerId, "Пила", "ножовка по дереву");
+            assertEquals(List.of(itemId), search("НОЖОВ"));
+
+            patchItem(ownerId, itemId, Map.of("name", "Лобзик", "description", "электрический"));
+            assertEquals(List.of(), search("ножов"));
+            assertEquals(List.of(itemId), search("лобз"));
+
+            patchItem(ownerId, itemId, Map.of("available", false));
+            assertEquals(List.of(), search("лобз"));
+            patchItem(ownerId, itemId, Map.of("available", true));
+            assertEquals(List.of(itemId), search("лобз"));
+
+            mvc().perform(delete("/users/{id}", ownerId)).andExpect(status().isOk());
+            assertEquals(List.of(), search("лобз"));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+            "shareit.search.engine=memory",
+            "shareit.search.memory.max-bytes=1KB"
+    })
+    @AutoConfigureMockMvc
+    @ActiveProfiles("test")
+    class MemoryOverBudget extends SearchContract {
+        @Autowired
+        private MemoryItemSearchEngine engine;
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @BeforeEach
+        void rebuild() {
+            engine.build();
+        }
+
+        @Test
+        void overBudget_fallsBackToDatabase_andReportsIt() {
+            assertEquals(1.0, meterRegistry.get("shareit.search.index.degraded").gauge().value());
+            assertEquals(0.0, meterRegistry.get("shareit.search.index.bytes").gauge().value());
+        }
+
+        @Test
+        void degradedIndex_isRebuilt_onceItFitsAgain() throws Exception {
+            engine.rebuildIfDegraded();
+            assertEquals(1.0, meterRegistry.get("shareit.search.index.degraded").gauge().value());
+
+            itemRepository().deleteAll();
+            engine.rebuildIfDegraded();
+            assertEquals(0.0, meterRegistry.get("shareit.search.index.degraded").gauge().value());
+
+            long itemId = createItem(createUser(), "Ящик", "инструментальный");
+            assertEquals(List.of(itemId), search("ящ"));
+            assertEquals(1.0, meterRegistry.get("shareit.search.index.degraded").gauge().value());
+        }
+    }
+
+    abstract static class SearchContract {
+
+        private static final String USER_HEADER = "X-Sharer-User-Id";
+
+        @Autowired
+        private MockMvc mvc;
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private CommentRepository commentRepository;
+        @Autowired
+        private BookingRepository bookingRepository;
+        @Autowired
+        private ItemRepository itemRepository;
+        @Autowired
+        private ItemRequestRepository requestRepository;
+        @Autowired
+        private UserRepository userRepository;
+
+        private long userId;
+        private Item drill;
+        private Item screwdriver;
+        private Item hammer;
+        private Item screws;
+        private Item driver;
+
+        @BeforeEach
+        void setUp() {
+            commentRepository.deleteAll();
+            bookingRepository.deleteAll();
+            itemRepository.deleteAll();
+            requestRepository.deleteAll();
+            userRepository.deleteAll();
+
+            userId = userRepository.save(User.builder().name("U").email("s" + System.nanoTime() + "@ex.ru").build())
+                    .getId();
+            drill = save("Дрель", "Аккумуляторная ДРЕЛЬ-шуруповёрт");
+            screwdriver = save("Отвёртка", "крестовая, под шуруп");
+            hammer = save("Hammer", "Heavy steel");
+            screws = save("Шуруп", "набор 100 шт");
+            driver = save("Шуруповёрт", "мощный");
+            itemRepository.save(Item.builder().userId(userId).name("Дрель старая").description("сломана")
+                    .available(false).build());
+        }
+
+        @Test
+        void search_isCaseInsensitiveSubstring_overAvailableItems() throws Exception {
+            assertEquals(List.of(drill.getId()), search("дРеЛь"));
+            assertEquals(List.of(drill.getId(), screwdriver.getId(), screws.getId(), driver.getId()), search("ШУРУП"));
+            assertEquals(List.of(hammer.getId()), search("eel"));
+            // короче триграммы: перебор всех документов
+            assertEquals(List.of(drill.getId(), screwdriver.getId()), search("РЕ"));
+            assertEquals(List.of(), search("нет такого"));
+            assertEquals(List.of(), search(" "));
+        }
+
+        @Test
+        void rankedSearch_prefersNameThenWholeWord() throws Exception {
+            // name целиком > name подстрокой > description целиком > description подстрокой
+            assertEquals(List.of(screws.getId(), driver.getId(), screwdriver.getId(), drill.getId()),
+                    search("шуруп", "0", "10", true));
+            assertEquals(List.of(driver.getId(), screwdriver.getId()), search("Шуруп", "1", "2", true));
+            assertEquals(List.of(), search("шуруп", "4", "2", true));
+        }
+
+        // from — смещение в строках и без ранжирования: 1 не кратно 2
+        @Test
+        void plainSearch_treatsFromAsRowOffset() throws Exception {
+            assertEquals(List.of(screwdriver.getId(), screws.getId()), search("шуруп", "1", "2", false));
+            assertEquals(List.of(driver.getId()), search("шуруп", "3", "2", false));
+        }
+
+        MockMvc mvc() {
+            return mvc;
+        }
+
+        ItemRepository itemRepository() {
+            return itemRepository;
+        }
+
+        long createUser() throws Exception {
+            return readId(mvc.perform(post("/users")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("name", "O", "email", "o" + System.nanoTime() + "@ex.ru")))));
+        }
+
+        long createItem(long ownerId, String name, String description) throws Exception {
+            return readId(mvc.perform(post("/items")
+                    .header(USER_HEADER, ownerId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of(
+                            "name", name, "description", description, "available", true)))));
+        }
+
+        void patchItem(long ownerId, long itemId, Map<String, Object> body) throws Exception {
+            mvc.perform(patch("/items/{id}", itemId)
+                            .header(USER_HEADER, ownerId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(body)))
+                    .andExpect(status().isOk());
+        }
+
+        private long readId(ResultActions result) throws Exception {
+            String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            return objectMapper.readTree(body).get("id").asLong();
+        }
+
+        private Item save(String name, String description) {
+            return itemRepository.save(Item.builder()
+                    .userId(userId)
+                    .name(name)
+                    .description(description)
+                    .available(true)
+                    .build());
+        }
+
+        List<Long> search(String text) throws Exception {
+            return search(text, "0", "10", false);
+        }
+
+        private List<Long> search(String text, String from, String size, boolean ranked) throws Exception {
+            String body = mvc.perform(get("/items/search")
+                            .header(USER_HEADER, userId)
+                            .param("text", text)
+                            .param("from", from)
+                            .param("size", size)
+                            .param("ranked", String.valueOf(ranked)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            List<Long> ids = new ArrayList<>();
+            for (JsonNode node : objectMapper.readTree(body)) {
+                ids.add(node.get("id").asLong());
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiOwnerItemsTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemBookingPointerService pointerService;
+
+    @BeforeEach
+    void cleanDb() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void ownerItems_areEnrichedPerItem() throws Exception {
+        long ownerId = createUser("Owner", uniq("own"));
+        long bookerId = createUser("Booker", uniq("bok"));
+
+        long drillId = createItem(ownerId, "Drill", "Nice");
+        long sawId = createItem(ownerId, "Saw", "Sharp");
+        long hammerId = createItem(ownerId, "Hammer", "Heavy");
+
+        User booker = userRepository.findById(bookerId).orElseThrow();
+        Item drill = itemRepository.findById(drillId).orElseThrow();
+        Item saw = itemRepository.findById(sawId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        // drill: две прошедшие и две будущие, в ответ должны попасть ближайшие
+        saveBooking(drill, booker, now.minusDays(5), now.minusDays(4), Status.APPROVED);
+        Booking drillLast = saveBooking(drill, booker, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        Booking drillNext = saveBooking(drill, booker, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        saveBooking(drill, booker, now.plusDays(5), now.plusDays(6), Status.APPROVED);
+        saveBooking(drill, booker, now.plusHours(1), now.plusHours(2), Status.REJECTED);
+
+        // saw: только будущая
+        Booking sawNext = saveBooking(saw, booker, now.plusDays(3), now.plusDays(4), Status.APPROVED);
+
+        commentRepository.save(Comment.builder().text("first").item(drill).author(booker)
+                .created(now.minusDays(1)).build());
+        commentRepository.save(Comment.builder().text("second").item(drill).author(booker)
+                .created(now.minusHours(1)).build());
+
+        mvc.perform(get("/items").header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(drillId))
+                .andExpect(jsonPath("$[0].lastBooking.id").value(drillLast.getId()))
+                .andExpect(jsonPath("$[0].nextBooking.id").value(drillNext.getId()))
+                .andExpect(jsonPath("$[0].nextBooking.bookerId").value(bookerId))
+                .andExpect(jsonPath("$[0].comments", hasSize(2)))
+                .andExpect(jsonPath("$[0].comments[0].text").value("second"))
+                .andExpect(jsonPath("$[0].comments[0].authorName").value("Booker"))
+                .andExpect(jsonPath("$[1].id").value(sawId))
+                .andExpect(jsonPath("$[1].lastBooking").doesNotExist())
+                .andExpect(jsonPath("$[1].nextBooking.id").value(sawNext.getId()))
+                .andExpect(jsonPath("$[1].comments", hasSize(0)))
+                .andExpect(jsonPath("$[2].id").value(hammerId))
+                .andExpect(jsonPath("$[2].lastBooking").doesNotExist())
+                .andExpect(jsonPath("$[2].nextBooking").doesNotExist());
+
+        // не владелец видит комментарии, но не бронирования
+        mvc.perform(get("/items/{id}", drillId).header(USER_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(2)))
+                .andExpect(jsonPath("$.lastBooking").doesNotExist())
+                .andExpect(jsonPath("$.nextBooking").doesNotExist());
+    }
+
+    @Test
+    void ownerItems_and_search_arePaged() throws Exception {
+        long ownerId = createUser("Owner", uniq("own"));
+        long[] ids = new long[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = createItem(ownerId, "Drill " + i, "Nice");
+        }
+
+        mvc.perform(get("/items").header(USER_HEADER, ownerId)
+                        .param("from", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(ids[2]))
+                .andExpect(jsonPath("$[1].id").value(ids[3]));
+
+        // from — смещение в строках, а не номер страницы: не кратное size тоже работает
+        mvc.perform(get("/items").header(USER_HEADER, ownerId)
+                        .param("from", "3")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(ids[3]))
+                .andExpect(jsonPath("$[1].id").value(ids[4]));
+
+        mvc.perform(get("/items/search").header(USER_HEADER, ownerId)
+                        .param("text", "dRiLl")
+                        .param("from", "4")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(ids[4]));
+
+        mvc.perform(get("/items/search").header(USER_HEADER, ownerId)
+                        .param("text", "drill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+    }
+
+    // -------- helpers --------
+
+    // бронь пишется репозиторием, поэтому указатели last/next вещи пересчитываются здесь же, как после BookingServiceImpl
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking saved = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .startTime(start)
+                .endTime(end)
+                .build());
+        pointerService.refresh(List.of(item.getId()));
+        return saved;
+    }
+
+    private String uniq(String prefix) {
+        return prefix + System.nanoTime() + "@ex.ru";
+    }
+
+    private long createUser(String name, String email) throws Exception {
+        MvcResult res = mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", name, "email", email))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return readId(res);
+    }
+
+    private long createItem(long ownerId, String name, String description) throws Exception {
+        MvcResult res = mvc.perform(post("/items")
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", name,
+                                "description", description,
+                                "available", true
+                        ))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return readId(res);
+    }
+
+    private long readId(MvcResult res) throws Exception {
+        JsonNode node = objectMapper.readTree(res.getResponse().getContentAsString());
+        return node.get("id").asLong();
+    }
+}
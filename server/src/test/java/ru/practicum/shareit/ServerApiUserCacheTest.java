@@ -0,0 +1,126 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerApiUserCacheTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void headerCheck_hitsDatabaseOnce_untilUserIsDeleted() throws Exception {
+        String body = mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "U", "email", "c" + System.nanoTime() + "@ex.ru"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long userId = objectMapper.readTree(body).get("id").asLong();
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/requests").header(USER_HEADER, userId)).andExpect(status().isOk());
+        long first = stats.getPrepareStatementCount();
+
+        stats.clear();
+        mvc.perform(get("/requests").header(USER_HEADER, userId)).andExpect(status().isOk());
+        // второй запрос: пользователь уже в кэше, остаётся только select запросов
+        assertEquals(first - 1, stats.getPrepareStatementCount());
+
+        mvc.perform(delete("/users/{id}", userId)).andExpect(status().isOk());
+        mvc.perform(get("/requests").header(USER_HEADER, userId)).andExpect(status().isNotFound());
+
+        mvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:users.existence"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[*].values[*]", hasItem("hit")));
+    }
+
+    // ETag для перепроверки кэша gateway: совпавший If-None-Match — 304 без тела, после правки ETag другой
+    @Test
+    void getById_sendsEtag_andAnswersNotModified() throws Exception {
+        String body = mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "U", "email", "e" + System.nanoTime() + "@ex.ru"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long userId = objectMapper.readTree(body).get("id").asLong();
+
+        String etag = mvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mvc.perform(patch("/users/{id}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "V"))))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("V"));
+    }
+}
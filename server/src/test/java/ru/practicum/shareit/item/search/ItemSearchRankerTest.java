@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchRankerTest {
+
+    @Test
+    void load_skipsItemsDeletedAfterRanking() {
+        ItemSearchRanker ranker = new ItemSearchRanker("drill", 0, 10);
+        ranker.offer(1, "Drill", "");
+        ranker.offer(2, "Old drill", "");
+        ranker.offer(3, "Saw", "for drill");
+
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        // вещь 2 удалили между чтением кандидатов и загрузкой страницы
+        when(itemRepository.findAllById(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(item(3), item(1)));
+
+        assertEquals(List.of(1L, 3L), ranker.load(itemRepository).stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void hugeOffset_doesNotOverflowHeapBound() {
+        ItemSearchRanker ranker = new ItemSearchRanker("drill", Integer.MAX_VALUE - 1, 10);
+        ranker.offer(1, "Drill", "");
+        ranker.offer(2, "Drill", "");
+
+        assertEquals(List.of(), ranker.page());
+    }
+
+    private static Item item(long id) {
+        return Item.builder().id(id).name("Item " + id).description("").available(true).build();
+    }
+}